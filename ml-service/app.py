@@ -4,6 +4,7 @@ import pandas as pd
 import numpy as np
 import os
 from dotenv import load_dotenv
+from features import to_feature_row
 
 # Load environment variables
 load_dotenv()
@@ -24,25 +25,15 @@ def health():
     return jsonify({'status': 'healthy', 'model_loaded': model is not None}), 200
 
 
-def map_employment_status(status):
-    status = str(status).upper()
-    if 'SALARIED' in status:
-        return 2
-    elif 'SELF' in status:
-        return 1
-    else:
-        return 0 # Unemployed or unknown
-
-def map_loan_purpose(purpose):
-    purpose = str(purpose).upper()
-    if 'EDUCATION' in purpose:
-        return 1
-    elif 'HOME' in purpose:
-        return 2
-    elif 'BUSINESS' in purpose:
-        return 3
-    else:
-        return 0 # Personal or default
+def score(features):
+    # One model call per DataFrame, however many rows it holds
+    predictions = model.predict(features)
+    probabilities = model.predict_proba(features)[:, 1]
+    return [{
+        'isApproved': bool(prediction),
+        'riskScore': float(probability),
+        'reason': 'Model prediction based on historical data' if prediction else 'High risk detected by ML model'
+    } for prediction, probability in zip(predictions, probabilities)]
 
 @app.route('/predict', methods=['POST'])
 def predict():
@@ -51,30 +42,28 @@ def predict():
     
     try:
         data = request.get_json()
+        features = pd.DataFrame([to_feature_row(data)])
+        return jsonify(score(features)[0])
         
-        # Extract and map features
-        features = pd.DataFrame([{
-            'monthly_income': data.get('monthlyIncome', 0),
-            'credit_score': data.get('creditScore', 0),
-            'loan_amount': data.get('principal', 0),
-            'tenure_months': data.get('tenureMonths', 0),
-            'existing_debt': data.get('existingDebt', 0),
-            'employment_status': map_employment_status(data.get('employmentStatus', '')),
-            'loan_purpose': map_loan_purpose(data.get('loanPurpose', ''))
-        }])
-        
-        # Predict
-        prediction = model.predict(features)[0]
-        probability = model.predict_proba(features)[0][1]
-        
-        result = {
-            'isApproved': bool(prediction),
-            'riskScore': float(probability),
-            'reason': 'Model prediction based on historical data' if prediction else 'High risk detected by ML model'
-        }
-        
-        return jsonify(result)
-        
+    except Exception as e:
+        return jsonify({'error': str(e)}), 400
+
+@app.route('/predict/batch', methods=['POST'])
+def predict_batch():
+    if not model:
+        return jsonify({'error': 'Model not loaded'}), 500
+
+    try:
+        items = request.get_json()
+        if not isinstance(items, list):
+            return jsonify({'error': 'Expected a JSON array of applications'}), 400
+        if not items:
+            return jsonify([])
+
+        # Results are returned in request order
+        features = pd.DataFrame([to_feature_row(data) for data in items])
+        return jsonify(score(features))
+
     except Exception as e:
         return jsonify({'error': str(e)}), 400
 
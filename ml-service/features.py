@@ -0,0 +1,68 @@
+"""Feature mapping shared by training, the Flask API and the exported in-JVM model.
+
+The Java scorer (com.finance.loanms.risk.forest.CreditFeatures) mirrors these functions; run
+`python features.py` after changing them to refresh the expected features in parity_cases.json,
+which the Java parity test checks against.
+"""
+import json
+import math
+
+# Column order the model is trained and exported with
+FEATURE_COLUMNS = ['monthly_income', 'credit_score', 'loan_amount', 'tenure_months',
+                   'existing_debt', 'employment_status', 'loan_purpose']
+
+PARITY_CASES_PATH = 'parity_cases.json'
+
+
+def map_employment_status(status):
+    status = str(status).upper()
+    if 'SALARIED' in status:
+        return 2
+    elif 'SELF' in status:
+        return 1
+    else:
+        return 0 # Unemployed or unknown
+
+def map_loan_purpose(purpose):
+    purpose = str(purpose).upper()
+    if 'EDUCATION' in purpose:
+        return 1
+    elif 'HOME' in purpose:
+        return 2
+    elif 'BUSINESS' in purpose:
+        return 3
+    else:
+        return 0 # Personal or default
+
+def to_feature_row(data):
+    return {
+        'monthly_income': data.get('monthlyIncome', 0),
+        'credit_score': data.get('creditScore', 0),
+        'loan_amount': data.get('principal', 0),
+        'tenure_months': data.get('tenureMonths', 0),
+        'existing_debt': data.get('existingDebt', 0),
+        'employment_status': map_employment_status(data.get('employmentStatus', '')),
+        'loan_purpose': map_loan_purpose(data.get('loanPurpose', ''))
+    }
+
+def to_feature_vector(data):
+    """The row as the model sees it: floats in FEATURE_COLUMNS order, None (NaN) for missing numbers."""
+    row = to_feature_row(data)
+    return [None if row[column] is None or math.isnan(float(row[column])) else float(row[column])
+            for column in FEATURE_COLUMNS]
+
+def load_parity_cases(path=PARITY_CASES_PATH):
+    with open(path) as f:
+        return json.load(f)
+
+def refresh_parity_cases(path=PARITY_CASES_PATH):
+    cases = load_parity_cases(path)
+    for case in cases:
+        case['features'] = to_feature_vector(case['input'])
+    with open(path, 'w') as f:
+        json.dump(cases, f, indent=2)
+        f.write('\n')
+    print(f"Wrote expected features for {len(cases)} cases to {path}")
+
+if __name__ == '__main__':
+    refresh_parity_cases()
@@ -4,6 +4,14 @@ from sklearn.ensemble import RandomForestClassifier
 from sklearn.model_selection import train_test_split
 from sklearn.metrics import accuracy_score, classification_report
 import joblib
+import json
+import os
+import sys
+from features import FEATURE_COLUMNS, load_parity_cases, to_feature_row
+
+EXPORT_PATH = 'credit_risk_model.json'
+FIXTURE_PATH = os.path.join('..', 'src', 'test', 'resources', 'credit_risk_model_fixture.json')
+EXPORT_FORMAT = 'loanms-forest-v1'
 
 def generate_synthetic_data(n_samples=1000):
     np.random.seed(42)
@@ -67,7 +75,7 @@ def train_model():
     print("Generating synthetic data...")
     df = generate_synthetic_data(4000)
     
-    X = df[['monthly_income', 'credit_score', 'loan_amount', 'tenure_months', 'existing_debt', 'employment_status', 'loan_purpose']]
+    X = df[FEATURE_COLUMNS]
     y = df['is_approved']
     
     X_train, X_test, y_train, y_test = train_test_split(X, y, test_size=0.2, random_state=42)
@@ -89,5 +97,56 @@ def train_model():
     joblib.dump(clf, 'credit_risk_model.pkl')
     print("Model saved to credit_risk_model.pkl")
 
+    export_model(clf)
+
+def export_model(clf, path=EXPORT_PATH):
+    """Writes the forest as plain node tables the Java service scores in-process, without sklearn or pickle.
+
+    Per tree, node i splits on feature[i] <= threshold[i] (inputs compared as float32, as sklearn does),
+    missing values go left when missingLeft[i], and leaves (left[i] == -1) carry the approval probability.
+    The parity section records this model's own predictions for parity_cases.json, so the Java scorer can
+    be checked against sklearn.
+    """
+    approved = list(clf.classes_).index(1)
+    trees = []
+    for estimator in clf.estimators_:
+        tree = estimator.tree_
+        values = tree.value[:, 0, :]
+        probabilities = values / values.sum(axis=1, keepdims=True)
+        # Only sklearn >= 1.3 routes missing values; older versions reject them at predict time
+        missing_left = getattr(tree, 'missing_go_to_left', np.zeros(tree.node_count, dtype=bool))
+        trees.append({
+            'left': tree.children_left.tolist(),
+            'right': tree.children_right.tolist(),
+            'feature': tree.feature.tolist(),
+            'threshold': tree.threshold.tolist(),
+            'missingLeft': [bool(m) for m in missing_left],
+            'approval': probabilities[:, approved].tolist()
+        })
+
+    cases = load_parity_cases()
+    rows = pd.DataFrame([to_feature_row(case['input']) for case in cases])
+    predictions = clf.predict(rows)
+    approval = clf.predict_proba(rows)[:, approved]
+    parity = [{'name': case['name'], 'input': case['input'], 'approved': bool(prediction), 'probability': float(p)}
+              for case, prediction, p in zip(cases, predictions, approval)]
+
+    model = {'format': EXPORT_FORMAT, 'features': FEATURE_COLUMNS, 'trees': trees, 'parity': parity}
+    # Write then rename, so a scorer watching the file never reads it half written
+    with open(path + '.tmp', 'w') as f:
+        json.dump(model, f, separators=(',', ':'))
+    os.replace(path + '.tmp', path)
+    print(f"Model exported to {path} ({len(trees)} trees)")
+
+def export_test_fixture(path=FIXTURE_PATH):
+    """Exports a deliberately small forest for the Java parity test, which then runs without a trained model."""
+    df = generate_synthetic_data(4000)
+    clf = RandomForestClassifier(n_estimators=3, max_depth=3, random_state=42)
+    clf.fit(df[FEATURE_COLUMNS], df['is_approved'])
+    export_model(clf, path)
+
 if __name__ == "__main__":
-    train_model()
+    if '--fixture' in sys.argv[1:]:
+        export_test_fixture()
+    else:
+        train_model()
@@ -0,0 +1,133 @@
+package com.finance.loanms.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks with the GC profiler and, when a baseline result file is given, fails if any
+ * benchmark's throughput dropped, or its allocation per operation grew, by more than the threshold.
+ * <p>
+ * Arguments: {@code include-regex result-file threshold [baseline-file]}. A baseline is simply the
+ * {@code jmh-result.json} of an earlier run.
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    // Allocation noise below this many bytes per op is ignored
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : ".*";
+        String resultFile = args.length > 1 ? args[1] : "target/jmh-result.json";
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        String baselineFile = args.length > 3 ? args[3] : "";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        if (baselineFile.isBlank()) {
+            return;
+        }
+        Map<String, double[]> baseline = readBaseline(new File(baselineFile));
+        int regressions = 0;
+        System.out.printf("%n%-90s %14s %14s %12s %12s%n", "Benchmark", "ops/unit", "baseline", "B/op", "baseline");
+        for (RunResult result : new TreeMap<>(index(results)).values()) {
+            String key = key(result);
+            double score = result.getPrimaryResult().getScore();
+            double error = result.getPrimaryResult().getScoreError();
+            double alloc = allocPerOp(result);
+            double[] before = baseline.get(key);
+            if (before == null) {
+                System.out.printf("%-90s %14.3f %14s %12.1f %12s%n", key, score, "-", alloc, "-");
+                continue;
+            }
+            // Only flag a drop that the measurement error cannot explain
+            boolean slower = score + (Double.isNaN(error) ? 0 : error) < before[0] * (1 - threshold);
+            boolean heavier = alloc > before[1] * (1 + threshold) + ALLOC_SLACK_BYTES;
+            System.out.printf("%-90s %14.3f %14.3f %12.1f %12.1f%s%n", key, score, before[0], alloc, before[1],
+                    slower || heavier ? "  REGRESSION" : "");
+            if (slower || heavier) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, RunResult> index(Collection<RunResult> results) {
+        Map<String, RunResult> byKey = new HashMap<>();
+        for (RunResult result : results) {
+            byKey.put(key(result), result);
+        }
+        return byKey;
+    }
+
+    private static String key(RunResult result) {
+        Map<String, String> params = new TreeMap<>();
+        for (String name : result.getParams().getParamsKeys()) {
+            params.put(name, result.getParams().getParam(name));
+        }
+        return key(result.getParams().getBenchmark(), params);
+    }
+
+    // Benchmark name followed by its parameters in name order, e.g. "...ScheduleBenchmark.engineCompute method=FLAT tenureMonths=360"
+    private static String key(String benchmark, Map<String, String> sortedParams) {
+        StringBuilder key = new StringBuilder(benchmark);
+        sortedParams.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    private static double allocPerOp(RunResult result) {
+        for (Map.Entry<String, Result> metric : result.getSecondaryResults().entrySet()) {
+            if (metric.getKey().replace("·", "").equals(ALLOC_NORM)) {
+                return metric.getValue().getScore();
+            }
+        }
+        return 0;
+    }
+
+    /** Reads a JMH JSON result into {@code key -> [score, alloc bytes per op]}. */
+    private static Map<String, double[]> readBaseline(File file) throws Exception {
+        Map<String, double[]> baseline = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+
+            double alloc = 0;
+            Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields();
+            while (metrics.hasNext()) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                if (metric.getKey().replace("·", "").equals(ALLOC_NORM)) {
+                    alloc = metric.getValue().path("score").asDouble();
+                }
+            }
+            baseline.put(key(run.path("benchmark").asText(), params),
+                    new double[]{run.path("primaryMetric").path("score").asDouble(), alloc});
+        }
+        return baseline;
+    }
+}
@@ -0,0 +1,54 @@
+package com.finance.loanms.benchmark;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.service.impl.RuleBasedCreditRiskService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CreditRiskBenchmark {
+
+    private final RuleBasedCreditRiskService riskService = new RuleBasedCreditRiskService();
+    private CreateLoanRequest approved;
+    private CreateLoanRequest highDebtRatio;
+
+    @Setup
+    public void setUp() {
+        approved = request(250000, 90000);
+        highDebtRatio = request(2500000, 30000);
+    }
+
+    @Benchmark
+    public RiskAssessment assessApproved() {
+        return riskService.assessRisk(approved);
+    }
+
+    /** Rejections format the ratio into the reason string. */
+    @Benchmark
+    public RiskAssessment assessRejected() {
+        return riskService.assessRisk(highDebtRatio);
+    }
+
+    private static CreateLoanRequest request(double principal, double monthlyIncome) {
+        return CreateLoanRequest.builder()
+                .customerId(1L)
+                .principal(principal)
+                .interestRate(10.5)
+                .interestType(InterestType.FIXED)
+                .tenureMonths(60)
+                .monthlyIncome(monthlyIncome)
+                .creditScore(720)
+                .employmentStatus("SALARIED")
+                .existingDebt(5000.0)
+                .loanPurpose("HOME")
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.finance.loanms.benchmark;
+
+import com.finance.loanms.model.enumtype.Role;
+import com.finance.loanms.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        set("secret", "OHZ3zPtWJf7i0ZY0p8n/3iK6dSJ8Xb13/1OlS7Do4jw=");
+        set("accessTokenValidity", 86400000L);
+        set("refreshTokenValidity", 604800000L);
+        tokenProvider.init();
+        token = tokenProvider.generateAccessToken("benchmark-user", Set.of(Role.USER));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return tokenProvider.getUsernameFromToken(token);
+    }
+
+    private void set(String field, Object value) {
+        var f = ReflectionUtils.findField(JwtTokenProvider.class, field);
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, tokenProvider, value);
+    }
+}
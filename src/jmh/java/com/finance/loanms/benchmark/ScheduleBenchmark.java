@@ -0,0 +1,89 @@
+package com.finance.loanms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.model.entity.InterestRate;
+import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.enumtype.LoanStatus;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.repository.InstallmentRepository;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.schedule.engine.AmortizationEngine;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.schedule.engine.AmortizationSchedule;
+import com.finance.loanms.schedule.engine.RateTable;
+import com.finance.loanms.service.impl.ScheduleServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScheduleBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 31);
+
+    @Param({"12", "360"})
+    public int tenureMonths;
+
+    @Param({"FLAT", "REDUCING_BALANCE"})
+    public AmortizationMethod method;
+
+    private RateTable rates;
+    private AmortizationSchedule reusable;
+    private ScheduleServiceImpl scheduleService;
+    private LoanAccount loanAccount;
+
+    @Setup
+    public void setUp() {
+        rates = RateTable.flat(10.5);
+        reusable = new AmortizationSchedule(tenureMonths);
+
+        scheduleService = new ScheduleServiceImpl(
+                Stubs.repository(InstallmentRepository.class),
+                Stubs.repository(LoanAccountRepository.class),
+                method, ScheduleStorage.MATERIALIZED,
+                new ScheduleResponseCache(new SimpleMeterRegistry(), new ObjectMapper(),
+                        new DefaultListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+                        1000, Duration.ofMinutes(1), false),
+                Stubs.repository(PlatformTransactionManager.class));
+        loanAccount = LoanAccount.builder()
+                .id(1L)
+                .principal(500000)
+                .tenureMonths(tenureMonths)
+                .startDate(START)
+                .status(LoanStatus.ACTIVE)
+                .interestRate(InterestRate.builder().type(InterestType.FIXED).baseRate(10.5).build())
+                .build();
+    }
+
+    @Benchmark
+    public AmortizationSchedule engineCompute() {
+        return AmortizationEngine.compute(method, 500000, tenureMonths, rates, START);
+    }
+
+    @Benchmark
+    public AmortizationSchedule engineComputeReusingArrays() {
+        AmortizationEngine.computeInto(method, 500000, tenureMonths, rates, START, reusable);
+        return reusable;
+    }
+
+    /** Full service path: engine plus building the Installment entities handed to saveAll. */
+    @Benchmark
+    public void generateSchedule(Blackhole blackhole) {
+        scheduleService.generateSchedule(loanAccount);
+        blackhole.consume(loanAccount);
+    }
+}
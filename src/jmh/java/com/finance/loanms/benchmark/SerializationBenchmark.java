@@ -0,0 +1,60 @@
+package com.finance.loanms.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.response.LoanResponse;
+import com.finance.loanms.dto.response.ScheduleResponse;
+import com.finance.loanms.schedule.engine.AmortizationEngine;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.schedule.engine.AmortizationSchedule;
+import com.finance.loanms.schedule.engine.RateTable;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"12", "360"})
+    public int tenureMonths;
+
+    // Configured like the MVC converter: ISO dates, JSR-310 module
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ApiResponse<ScheduleResponse> schedule;
+    private ApiResponse<LoanResponse> loan;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 31);
+        AmortizationSchedule computed = AmortizationEngine.compute(
+                AmortizationMethod.FLAT, 500000, tenureMonths, RateTable.flat(10.5), start);
+        List<ScheduleResponse.InstallmentEntry> entries = new ArrayList<>(tenureMonths);
+        for (int i = 1; i <= tenureMonths; i++) {
+            entries.add(new ScheduleResponse.InstallmentEntry(i, computed.dueDate(i), computed.principalComponent(i),
+                    computed.interestComponent(i), computed.totalAmount(i), "DUE"));
+        }
+        schedule = ApiResponse.ok("Schedule retrieved successfully", new ScheduleResponse(1L, entries));
+        loan = ApiResponse.ok("Loan details retrieved successfully", new LoanResponse(1L, 7L, 500000, tenureMonths,
+                10.5, "FIXED", "ACTIVE", start, 0.21, "Approved", true));
+    }
+
+    @Benchmark
+    public byte[] scheduleResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(schedule);
+    }
+
+    @Benchmark
+    public byte[] loanResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loan);
+    }
+}
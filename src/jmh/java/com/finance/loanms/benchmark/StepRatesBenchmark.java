@@ -0,0 +1,53 @@
+package com.finance.loanms.benchmark;
+
+import com.finance.loanms.schedule.engine.AmortizationEngine;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.schedule.engine.AmortizationSchedule;
+import com.finance.loanms.schedule.engine.RateTable;
+import com.finance.loanms.schedule.engine.StepRates;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StepRatesBenchmark {
+
+    private static final int TENURE = 360;
+
+    private final Map<Integer, Double> requestSteps = Map.of(1, 7.5, 37, 8.25, 85, 9.0, 181, 9.75, 301, 10.5);
+    private RateTable rates;
+    private final AmortizationSchedule reusable = new AmortizationSchedule(TENURE);
+
+    @Setup
+    public void setUp() {
+        rates = RateTable.fromSteps(StepRates.normalize(requestSteps, TENURE));
+    }
+
+    @Benchmark
+    public SortedMap<Integer, Double> normalize() {
+        return StepRates.normalize(requestSteps, TENURE);
+    }
+
+    @Benchmark
+    public double rateLookupPerInstallment() {
+        double sum = 0;
+        for (int i = 1; i <= TENURE; i++) {
+            sum += rates.rateAt(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public AmortizationSchedule steppedSchedule() {
+        AmortizationEngine.computeInto(AmortizationMethod.FLAT, 500000, TENURE, rates, LocalDate.of(2024, 1, 31), reusable);
+        return reusable;
+    }
+}
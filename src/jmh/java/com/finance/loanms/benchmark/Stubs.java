@@ -0,0 +1,42 @@
+package com.finance.loanms.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/** Persistence stand-ins so benchmarks measure only the in-memory work. */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /** Repository whose save methods echo their argument and whose queries return empty results. */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("save") && args != null && args.length == 1) {
+                return args[0];
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == long.class || returnType == int.class) {
+                return 0;
+            }
+            if (returnType == double.class) {
+                return 0.0;
+            }
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.loanms.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that read-modify-writes a loan's rows. Calls for the same loan are queued on
+ * an in-process striped lock, and the whole transactional call is retried when a concurrent writer
+ * (another node, or the lock being disabled) wins the optimistic version check.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoanWrite {
+
+    /** Position of the loan id ({@code Long}) among the method parameters. */
+    int loanIdParam() default 0;
+}
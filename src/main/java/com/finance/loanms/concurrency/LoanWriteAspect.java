@@ -0,0 +1,94 @@
+package com.finance.loanms.concurrency;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies {@link LoanWrite}. Ordered ahead of the transaction interceptor, so the lock is held until the
+ * transaction has committed and every retry runs in a fresh transaction.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LoanWriteAspect {
+
+    private final ReentrantLock[] stripes;
+    private final boolean lockingEnabled;
+    private final long lockTimeoutMillis;
+    private final int maxAttempts;
+
+    public LoanWriteAspect(@Value("${loan.write.lock.enabled:true}") boolean lockingEnabled,
+                           @Value("${loan.write.lock.stripes:1024}") int stripeCount,
+                           @Value("${loan.write.lock.timeout-ms:5000}") long lockTimeoutMillis,
+                           @Value("${loan.write.max-attempts:3}") int maxAttempts) {
+        this.lockingEnabled = lockingEnabled;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Around("@annotation(loanWrite)")
+    public Object around(ProceedingJoinPoint joinPoint, LoanWrite loanWrite) throws Throwable {
+        Object loanId = joinPoint.getArgs()[loanWrite.loanIdParam()];
+        ReentrantLock lock = lockingEnabled && loanId != null
+                ? stripes[Math.floorMod(loanId.hashCode(), stripes.length)] : null;
+        if (lock != null && !lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new CannotAcquireLockException("Loan " + loanId + " is busy, please retry");
+        }
+        try {
+            return proceedWithRetry(joinPoint, loanId);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Object proceedWithRetry(ProceedingJoinPoint joinPoint, Object loanId) throws Throwable {
+        // Inside a caller's transaction a retry would reuse its failed persistence context; let the caller decide
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : maxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                if (attempt >= attempts || !isVersionConflict(e)) {
+                    throw e;
+                }
+                log.debug("Version conflict on loan {} in {}, attempt {}/{}",
+                        loanId, joinPoint.getSignature().toShortString(), attempt, attempts);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt));
+            }
+        }
+    }
+
+    // Services wrap unexpected exceptions, so the conflict may sit anywhere in the cause chain
+    private static boolean isVersionConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
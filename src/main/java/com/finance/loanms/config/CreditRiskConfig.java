@@ -0,0 +1,106 @@
+package com.finance.loanms.config;
+
+import com.finance.loanms.risk.CachingCreditRiskService;
+import com.finance.loanms.risk.HedgedCreditRiskService;
+import com.finance.loanms.risk.ShadowCreditRiskService;
+import com.finance.loanms.service.CreditRiskService;
+import com.finance.loanms.service.impl.EmbeddedModelCreditRiskService;
+import com.finance.loanms.service.impl.MLBasedCreditRiskService;
+import com.finance.loanms.service.impl.RuleBasedCreditRiskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Picks the scorer loan origination uses with {@code credit.risk.engine}: {@code rule} (default),
+ * {@code ml} for the Python service, {@code embedded} for the in-process exported model, or {@code hedged}:
+ * the Python service under a deadline with hedged requests, falling back to the rules.
+ * With {@code credit.risk.shadow.engine} set, that engine scores the same traffic in the background for
+ * comparison; it has to differ from the live engine. Decisions are cached by application unless
+ * {@code credit.risk.cache.enabled} is off.
+ */
+@Configuration
+public class CreditRiskConfig {
+
+    @Bean
+    @Primary
+    public CreditRiskService creditRiskService(@Value("${credit.risk.engine:rule}") String engine,
+                                               @Value("${credit.risk.shadow.engine:}") String shadowEngine,
+                                               RuleBasedCreditRiskService ruleBased,
+                                               ObjectProvider<MLBasedCreditRiskService> mlBased,
+                                               ObjectProvider<EmbeddedModelCreditRiskService> embedded,
+                                               ObjectProvider<HedgedCreditRiskService> hedged,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${credit.risk.cache.enabled:true}") boolean cacheEnabled,
+                                               @Value("${credit.risk.cache.max-size:10000}") long cacheMaxSize,
+                                               @Value("${credit.risk.cache.ttl:PT10M}") Duration cacheTtl,
+                                               @Value("${credit.risk.shadow.workers:4}") int shadowWorkers,
+                                               @Value("${credit.risk.shadow.queue-capacity:1000}") int shadowQueueCapacity,
+                                               @Value("${credit.risk.shadow.window-size:1000}") int shadowWindowSize) {
+        // Scorers that start threads are resolved only when the live or shadow engine names them
+        Map<String, Supplier<CreditRiskService>> engines = Map.of(
+                "rule", () -> ruleBased,
+                "ml", mlBased::getObject,
+                "embedded", embedded::getObject,
+                "hedged", hedged::getObject);
+        CreditRiskService selected = engine(engines, engine);
+        if (!shadowEngine.isBlank()) {
+            if (normalize(shadowEngine).equals(normalize(engine))) {
+                throw new IllegalArgumentException("credit.risk.shadow.engine must differ from credit.risk.engine, both are "
+                        + normalize(engine));
+            }
+            selected = new ShadowCreditRiskService(selected, engine(engines, shadowEngine), shadowWorkers,
+                    shadowQueueCapacity, shadowWindowSize, meterRegistry);
+        }
+        if (cacheEnabled) {
+            return new CachingCreditRiskService(selected, cacheMaxSize, cacheTtl, meterRegistry);
+        }
+        // Delegate rather than re-register the bean, so its proxies and lifecycle stay with the original
+        return selected::assessRisk;
+    }
+
+    @Bean
+    @Conditional(HedgedEngineSelected.class)
+    public HedgedCreditRiskService hedgedCreditRiskService(RuleBasedCreditRiskService ruleBased,
+                                                           MLBasedCreditRiskService mlBased,
+                                                           MeterRegistry meterRegistry,
+                                                           @Value("${credit.risk.hedge.deadline:PT0.8S}") Duration deadline,
+                                                           @Value("${credit.risk.hedge.min-delay:PT0.02S}") Duration minHedgeDelay,
+                                                           @Value("${credit.risk.hedge.initial-delay:PT0.15S}") Duration initialHedgeDelay) {
+        return new HedgedCreditRiskService(mlBased, ruleBased, deadline, minHedgeDelay, initialHedgeDelay, meterRegistry);
+    }
+
+    private static CreditRiskService engine(Map<String, Supplier<CreditRiskService>> engines, String name) {
+        Supplier<CreditRiskService> engine = engines.get(normalize(name));
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown credit risk engine: " + name);
+        }
+        return engine.get();
+    }
+
+    private static String normalize(String engine) {
+        return engine.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** The hedged scorer owns an executor, so it is only built when it serves live or shadow traffic. */
+    static class HedgedEngineSelected implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return "hedged".equals(normalize(context.getEnvironment().getProperty("credit.risk.engine", "rule")))
+                    || "hedged".equals(normalize(context.getEnvironment().getProperty("credit.risk.shadow.engine", "")));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.finance.loanms.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past ids that were issued by the previous IDENTITY columns.
+ * <p>
+ * MySQL has no native sequences, so Hibernate backs each one with a single-row table. On a database
+ * that already holds rows, those tables start at 1 and would hand out ids that are taken; this runs once
+ * at startup (after the schema is updated) and bumps each sequence beyond {@code MAX(id)}.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+
+    // Must match the allocationSize of the @SequenceGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+            "loan_account_seq", "loan_account",
+            "installment_seq", "installment",
+            "repayment_seq", "repayment",
+            "charge_seq", "charge",
+            "rate_reset_job_seq", "rate_reset_job",
+            "rate_reset_chunk_seq", "rate_reset_chunk",
+            "queued_repayment_seq", "queued_repayment",
+            "repayment_ingest_job_seq", "repayment_ingest_job");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCE_TABLES.forEach((sequence, table) -> {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                long floor = (maxId == null ? 0 : maxId) + 1 + ALLOCATION_SIZE;
+                int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", floor, floor);
+                if (updated > 0) {
+                    log.info("Advanced id sequence {} to {} (max {}.id = {})", sequence, floor, table, maxId);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not align id sequence {}: {}", sequence, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.finance.loanms.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP client for the ML scoring service. The JDK client keeps connections alive in its own pool and
+ * blocks with j.u.c primitives rather than monitors, so callers on virtual threads are not pinned;
+ * connect and read deadlines make a hung pod fail fast instead of holding callers indefinitely.
+ * <p>
+ * The JDK client sizes its pool and keep-alive only from the {@code jdk.httpclient.*} system properties,
+ * read once when the first client in the JVM is built, so {@code ml.client.connection-pool-size} and
+ * {@code ml.client.keep-alive} are copied there first. A value already given with {@code -D} wins.
+ */
+@Slf4j
+@Configuration
+public class MLClientConfig {
+
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Bean
+    public RestTemplate mlRestTemplate(RestTemplateBuilder builder,
+                                       @Value("${ml.client.connect-timeout-ms:500}") long connectTimeoutMillis,
+                                       @Value("${ml.client.read-timeout-ms:2000}") long readTimeoutMillis,
+                                       @Value("${ml.client.connection-pool-size:16}") int connectionPoolSize,
+                                       @Value("${ml.client.keep-alive:PT30S}") Duration keepAlive) {
+        if (connectionPoolSize < 0 || keepAlive.isNegative()) {
+            throw new IllegalArgumentException("ml.client.connection-pool-size and ml.client.keep-alive cannot be negative");
+        }
+        setIfAbsent(POOL_SIZE_PROPERTY, String.valueOf(connectionPoolSize));
+        setIfAbsent(KEEP_ALIVE_PROPERTY, String.valueOf(keepAlive.toSeconds()));
+        HttpClient httpClient = HttpClient.newBuilder()
+                // The Flask service speaks HTTP/1.1 only; skip the h2c upgrade attempt
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        String current = System.getProperty(property);
+        if (current == null) {
+            System.setProperty(property, value);
+        } else if (!current.equals(value)) {
+            log.info("Keeping -D{}={} over the ml.client setting {}", property, current, value);
+        }
+    }
+}
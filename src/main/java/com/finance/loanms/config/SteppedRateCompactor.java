@@ -0,0 +1,45 @@
+package com.finance.loanms.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shrinks stepped rates stored in the old one-row-per-month form down to breakpoints by deleting
+ * every row whose rate equals the previous installment's. Schedules are unaffected: a rate applies
+ * until the next breakpoint either way. This is a one-off upgrade step: the delete self-joins the whole
+ * table, so it is off by default and meant to be enabled for a single start.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "schedule.step-rates.compact-on-startup", havingValue = "true")
+public class SteppedRateCompactor {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SteppedRateCompactor(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void compact() {
+        try {
+            int removed = jdbcTemplate.update("""
+                    DELETE s FROM stepped_rates s
+                    JOIN stepped_rates p ON p.loan_account_id = s.loan_account_id
+                        AND p.installment_number = s.installment_number - 1
+                        AND p.rate = s.rate
+                    """);
+            if (removed > 0) {
+                log.info("Compacted stepped rates: removed {} redundant per-month rows", removed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not compact stepped rates: {}", e.getMessage());
+        }
+    }
+}
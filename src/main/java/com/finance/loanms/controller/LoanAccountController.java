@@ -3,20 +3,28 @@ package com.finance.loanms.controller;
 import com.finance.loanms.dto.request.CreateLoanRequest;
 import com.finance.loanms.dto.request.ForecloseLoanRequest;
 import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.LoanQuoteRequest;
+import com.finance.loanms.dto.response.LoanBatchResponse;
+import com.finance.loanms.dto.response.LoanQuoteResponse;
 import com.finance.loanms.dto.response.LoanResponse;
 import com.finance.loanms.service.LoanAccountService;
+import com.finance.loanms.service.LoanQuoteService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/loans")
 public class LoanAccountController {
 
     private final LoanAccountService loanAccountService;
+    private final LoanQuoteService loanQuoteService;
 
-    public LoanAccountController(LoanAccountService loanAccountService) {
+    public LoanAccountController(LoanAccountService loanAccountService, LoanQuoteService loanQuoteService) {
         this.loanAccountService = loanAccountService;
+        this.loanQuoteService = loanQuoteService;
     }
 
     /**
@@ -29,6 +37,26 @@ public class LoanAccountController {
         return ResponseEntity.ok(loanAccountService.createLoan(request));
     }
 
+    /**
+     * Bulk Create Loan API: up to loan.batch.max-size applications, each answered with its own result
+     * URL: POST /loans/batch
+     * Body: array of CreateLoanRequest
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<LoanBatchResponse>> createLoans(@RequestBody List<CreateLoanRequest> requests) {
+        return ResponseEntity.ok(loanAccountService.createLoans(requests));
+    }
+
+    /**
+     * Quote API: EMI and totals for a grid of tenures, rates and types. Nothing is persisted.
+     * URL: POST /loans/quote
+     * Body: LoanQuoteRequest
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<ApiResponse<LoanQuoteResponse>> quote(@Valid @RequestBody LoanQuoteRequest request) {
+        return ResponseEntity.ok(loanQuoteService.quote(request));
+    }
+
     /**
      * Foreclose Loan API
      * URL: POST /loans/{loanId}/foreclose
@@ -0,0 +1,36 @@
+package com.finance.loanms.controller;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RateResetRequest;
+import com.finance.loanms.dto.response.RateResetJobResponse;
+import com.finance.loanms.service.RateResetService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/loans/rate-resets")
+public class RateResetController {
+
+    private final RateResetService rateResetService;
+
+    public RateResetController(RateResetService rateResetService) {
+        this.rateResetService = rateResetService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<RateResetJobResponse>> startReset(@Valid @RequestBody RateResetRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rateResetService.startReset(request));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<RateResetJobResponse>> getJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rateResetService.getJob(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<ApiResponse<RateResetJobResponse>> resumeJob(@PathVariable Long jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rateResetService.resumeJob(jobId));
+    }
+}
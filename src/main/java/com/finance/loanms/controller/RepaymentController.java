@@ -4,31 +4,55 @@ import com.finance.loanms.dto.request.RepaymentRequest;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.response.RepaymentHistoryResponse;
 import com.finance.loanms.dto.response.RepaymentResponse;
+import com.finance.loanms.service.RepaymentQueueService;
 import com.finance.loanms.service.RepaymentService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/loans/{loanId}/repayments")
 public class RepaymentController {
 
     private final RepaymentService repaymentService;
+    private final RepaymentQueueService repaymentQueueService;
+    private final boolean asyncByDefault;
 
-    public RepaymentController(RepaymentService repaymentService) {
+    public RepaymentController(RepaymentService repaymentService, RepaymentQueueService repaymentQueueService,
+                               @Value("${repayment.async.enabled:false}") boolean asyncByDefault) {
         this.repaymentService = repaymentService;
+        this.repaymentQueueService = repaymentQueueService;
+        this.asyncByDefault = asyncByDefault;
     }
 
+    /**
+     * Applies the repayment, or with {@code async} (defaulting to {@code repayment.async.enabled}) only
+     * queues it and answers 202 with a tracking id for {@code GET /repayments/status/{id}}.
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<RepaymentResponse>> applyRepayment(
+    public ResponseEntity<? extends ApiResponse<?>> applyRepayment(
             @PathVariable Long loanId,
+            @RequestParam(required = false) Boolean async,
             @Valid @RequestBody RepaymentRequest request) {
 
+        if (async != null ? async : asyncByDefault) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(repaymentQueueService.enqueue(loanId, request));
+        }
         return ResponseEntity.ok(repaymentService.applyRepayment(loanId, request));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<RepaymentHistoryResponse>> getRepaymentHistory(@PathVariable Long loanId) {
-        return ResponseEntity.ok(repaymentService.getRepaymentHistory(loanId));
+    public ResponseEntity<ApiResponse<RepaymentHistoryResponse>> getRepaymentHistory(
+            @PathVariable Long loanId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(repaymentService.getRepaymentHistory(loanId, from, to, cursor, size));
     }
 }
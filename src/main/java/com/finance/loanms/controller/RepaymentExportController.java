@@ -0,0 +1,29 @@
+package com.finance.loanms.controller;
+
+import com.finance.loanms.model.enumtype.ExportFormat;
+import com.finance.loanms.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/repayments/export")
+public class RepaymentExportController {
+
+    private final ExportService exportService;
+
+    public RepaymentExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping
+    public void exportRepayments(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 @RequestParam(defaultValue = "csv") String format,
+                                 HttpServletResponse response) throws IOException {
+        exportService.exportRepayments(from, to, ExportFormat.from(format), response);
+    }
+}
@@ -0,0 +1,40 @@
+package com.finance.loanms.controller;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.response.RepaymentIngestJobResponse;
+import com.finance.loanms.service.RepaymentIngestService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/repayments/ingest")
+public class RepaymentIngestController {
+
+    private final RepaymentIngestService repaymentIngestService;
+
+    public RepaymentIngestController(RepaymentIngestService repaymentIngestService) {
+        this.repaymentIngestService = repaymentIngestService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<RepaymentIngestJobResponse>> startIngest(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(repaymentIngestService.startIngest(file));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<RepaymentIngestJobResponse>> getJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(repaymentIngestService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/results")
+    public void getResults(@PathVariable Long jobId, HttpServletResponse response) throws IOException {
+        repaymentIngestService.writeResults(jobId, response);
+    }
+}
@@ -0,0 +1,23 @@
+package com.finance.loanms.controller;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.response.RepaymentStatusResponse;
+import com.finance.loanms.service.RepaymentQueueService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/repayments/status")
+public class RepaymentStatusController {
+
+    private final RepaymentQueueService repaymentQueueService;
+
+    public RepaymentStatusController(RepaymentQueueService repaymentQueueService) {
+        this.repaymentQueueService = repaymentQueueService;
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<ApiResponse<RepaymentStatusResponse>> getStatus(@PathVariable Long trackingId) {
+        return ResponseEntity.ok(repaymentQueueService.getStatus(trackingId));
+    }
+}
@@ -2,19 +2,26 @@ package com.finance.loanms.controller;
 
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.response.ScheduleResponse;
+import com.finance.loanms.model.enumtype.ExportFormat;
+import com.finance.loanms.service.ExportService;
 import com.finance.loanms.service.ScheduleService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Min;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/loans/{loanId}/schedule")
 public class ScheduleController {
 
     private final ScheduleService scheduleService;
+    private final ExportService exportService;
 
-    public ScheduleController(ScheduleService scheduleService) {
+    public ScheduleController(ScheduleService scheduleService, ExportService exportService) {
         this.scheduleService = scheduleService;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -31,4 +38,11 @@ public class ScheduleController {
         return ResponseEntity
                 .ok(scheduleService.updateScheduleAfterRateChange(loanId, newInterestRate, effectiveFromInstallment));
     }
+
+    @GetMapping("/export")
+    public void exportSchedule(@PathVariable Long loanId,
+                               @RequestParam(defaultValue = "csv") String format,
+                               HttpServletResponse response) throws IOException {
+        exportService.exportSchedule(loanId, ExportFormat.from(format), response);
+    }
 }
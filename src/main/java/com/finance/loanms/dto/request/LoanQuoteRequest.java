@@ -0,0 +1,29 @@
+package com.finance.loanms.dto.request;
+
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.List;
+import java.util.Map;
+
+public record LoanQuoteRequest(
+        @NotNull @Positive
+        Double principal,
+
+        @NotEmpty
+        List<@NotNull @Positive Integer> tenures,
+
+        List<@NotNull @PositiveOrZero Double> rates, // annual %, required unless only STEP is quoted
+
+        List<InterestType> interestTypes, // defaults to FIXED; STEP uses steppedRates instead of rates
+
+        Map<Integer, Double> steppedRates,
+
+        List<AmortizationMethod> methods, // defaults to the configured method
+
+        boolean includeSchedule
+) {}
@@ -0,0 +1,14 @@
+package com.finance.loanms.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDate;
+
+public record RateResetRequest(
+        @NotNull @PositiveOrZero
+        Double newRate,
+
+        @NotNull
+        LocalDate effectiveDate // installments due on or after this date are repriced
+) {}
@@ -24,6 +24,7 @@ public class ChargeResponse {
         private Long loanAccountId;
         private List<ChargeDetails> charges;
         private Double totalCharges;
+        private Double outstandingCharges;
 
         @Data
         @Builder
@@ -0,0 +1,15 @@
+package com.finance.loanms.dto.response;
+
+import com.finance.loanms.model.enumtype.InstallmentStatus;
+
+import java.time.LocalDate;
+
+public record InstallmentExportRow(
+        Long loanId,
+        int installmentNumber,
+        LocalDate dueDate,
+        double principalComponent,
+        double interestComponent,
+        double totalAmount,
+        InstallmentStatus status
+) {}
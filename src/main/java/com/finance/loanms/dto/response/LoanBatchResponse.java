@@ -0,0 +1,54 @@
+package com.finance.loanms.dto.response;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.entity.LoanAccount;
+
+import java.util.List;
+
+public record LoanBatchResponse(
+        int total,
+        int created,
+        int rejected,
+        int failed,
+        List<Item> results
+) {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED"; // invalid application, unknown customer or declined on risk
+    public static final String FAILED = "FAILED";     // could not be scored or saved; safe to resubmit
+
+    public static LoanBatchResponse of(List<Item> results) {
+        int created = 0;
+        int rejected = 0;
+        for (Item item : results) {
+            if (CREATED.equals(item.status())) {
+                created++;
+            } else if (REJECTED.equals(item.status())) {
+                rejected++;
+            }
+        }
+        return new LoanBatchResponse(results.size(), created, rejected, results.size() - created - rejected, results);
+    }
+
+    /** Outcome of the application at {@code index} in the request. */
+    public record Item(
+            int index,
+            Long customerId,
+            String status,
+            Long loanId,
+            Double riskScore,
+            String message
+    ) {
+        public static Item created(int index, LoanAccount loan) {
+            return new Item(index, loan.getCustomer().getId(), CREATED, loan.getId(), loan.getRiskScore(),
+                    "Loan created successfully");
+        }
+
+        public static Item rejected(int index, CreateLoanRequest request, Double riskScore, String message) {
+            return new Item(index, request == null ? null : request.getCustomerId(), REJECTED, null, riskScore, message);
+        }
+
+        public static Item failed(int index, CreateLoanRequest request, String message) {
+            return new Item(index, request.getCustomerId(), FAILED, null, null, message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.loanms.dto.response;
+
+import java.util.List;
+
+public record LoanQuoteResponse(
+        double principal,
+        List<Quote> quotes
+) {
+    public record Quote(
+            int tenureMonths,
+            Double annualRate, // null for STEP quotes
+            String interestType,
+            String method,
+            double firstInstallment, // varies later for STEP rates and REDUCING_BALANCE; see schedule
+            double totalInterest,
+            double totalPayable,
+            List<ScheduleResponse.InstallmentEntry> schedule // only when requested
+    ) {}
+}
@@ -0,0 +1,15 @@
+package com.finance.loanms.dto.response;
+
+import java.time.LocalDate;
+
+public record RateResetJobResponse(
+        Long jobId,
+        double newRate,
+        LocalDate effectiveDate,
+        String status,
+        int totalChunks,
+        long completedChunks,
+        long failedChunks,
+        long loansRepriced,
+        long installmentsUpdated
+) {}
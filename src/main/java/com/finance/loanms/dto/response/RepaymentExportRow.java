@@ -0,0 +1,13 @@
+package com.finance.loanms.dto.response;
+
+import java.time.LocalDate;
+
+public record RepaymentExportRow(
+        Long repaymentId,
+        Long loanId,
+        int installmentNumber,
+        double amount,
+        LocalDate paymentDate,
+        String mode,
+        String transactionId
+) {}
@@ -4,7 +4,8 @@ import java.util.List;
 
 public record RepaymentHistoryResponse(
         String message,
-        List<RepaymentHistory> repayments
+        List<RepaymentHistory> repayments,
+        String nextCursor // null on the last page
 ) {}
 
 
@@ -0,0 +1,10 @@
+package com.finance.loanms.dto.response;
+
+public record RepaymentIngestJobResponse(
+        Long jobId,
+        String fileName,
+        String status,
+        long totalLines,
+        long postedLines,
+        long rejectedLines
+) {}
@@ -0,0 +1,13 @@
+package com.finance.loanms.dto.response;
+
+import java.time.LocalDateTime;
+
+public record RepaymentStatusResponse(
+        Long trackingId,
+        Long loanId,
+        String transactionId,
+        String status,
+        String message,
+        LocalDateTime acceptedAt,
+        LocalDateTime updatedAt
+) {}
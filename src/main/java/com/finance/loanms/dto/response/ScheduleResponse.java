@@ -1,5 +1,8 @@
 package com.finance.loanms.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDate;
 import java.util.List;
 
@@ -8,7 +11,9 @@ public class ScheduleResponse {
     private Long loanId;
     private List<InstallmentEntry> schedule;
 
-    public ScheduleResponse(Long loanId, List<InstallmentEntry> schedule) {
+    @JsonCreator
+    public ScheduleResponse(@JsonProperty("loanId") Long loanId,
+                            @JsonProperty("schedule") List<InstallmentEntry> schedule) {
         this.loanId = loanId;
         this.schedule = schedule;
     }
@@ -37,7 +42,13 @@ public class ScheduleResponse {
         private double totalAmount;
         private String status; // DUE, PAID, LATE, etc.
 
-        public InstallmentEntry(int installmentNumber, LocalDate dueDate, double principalComponent, double interestComponent, double totalAmount, String status) {
+        @JsonCreator
+        public InstallmentEntry(@JsonProperty("installmentNumber") int installmentNumber,
+                                @JsonProperty("dueDate") LocalDate dueDate,
+                                @JsonProperty("principalComponent") double principalComponent,
+                                @JsonProperty("interestComponent") double interestComponent,
+                                @JsonProperty("totalAmount") double totalAmount,
+                                @JsonProperty("status") String status) {
             this.installmentNumber = installmentNumber;
             this.dueDate = dueDate;
             this.principalComponent = principalComponent;
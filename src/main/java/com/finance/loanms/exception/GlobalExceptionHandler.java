@@ -1,6 +1,7 @@
 package com.finance.loanms.exception;
 
 import com.finance.loanms.dto.ApiResponse;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +22,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail(ex.getMessage()));
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.fail("Loan was updated concurrently, please retry"));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Object>> handleException(Exception ex) {
         return ResponseEntity
@@ -15,13 +15,20 @@ import java.time.LocalDate;
 public class Charge extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "charge_seq")
+    @SequenceGenerator(name = "charge_seq", sequenceName = "charge_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private long version;
+
     @Enumerated(EnumType.STRING)
     private ChargeType type;
 
     private double amount;
+
+    // Paid so far; the charge is marked paid once this reaches the amount
+    private double paidAmount;
     private LocalDate appliedDate;
     private String description;
 
@@ -14,24 +14,36 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_installment_loan_number", columnList = "loan_account_id, installment_number"))
 public class Installment extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_seq")
+    @SequenceGenerator(name = "installment_seq", sequenceName = "installment_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private long version;
+
     private int installmentNumber;
     private LocalDate dueDate;
     private double principalComponent;
     private double interestComponent;
     private double totalAmount;
 
+    // Sum of the repayments posted against this installment, kept in step with them
+    private double paidAmount;
+
+    // Interest part of paidAmount; the rest went to principal
+    private double interestPaid;
+
     @Enumerated(EnumType.STRING)
     private InstallmentStatus status;
 
     @ManyToOne(optional = false)
     private LoanAccount loanAccount;
 
+    @Builder.Default
     @OneToMany(mappedBy = "installment", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Repayment> repayments = new ArrayList<>();
 }
@@ -3,9 +3,10 @@ package com.finance.loanms.model.entity;
 import com.finance.loanms.model.enumtype.InterestType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SortNatural;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Embeddable
 @Getter
@@ -20,9 +21,12 @@ public class InterestRate {
 
     private double baseRate;
 
+    // Breakpoints only: each entry applies from its installment number until the next one
     @ElementCollection
     @CollectionTable(name = "stepped_rates", joinColumns = @JoinColumn(name = "loan_account_id"))
     @MapKeyColumn(name = "installment_number")
     @Column(name = "rate")
-    private Map<Integer, Double> steppedRates = new HashMap<>();
+    @SortNatural
+    @Builder.Default
+    private SortedMap<Integer, Double> steppedRates = new TreeMap<>();
 }
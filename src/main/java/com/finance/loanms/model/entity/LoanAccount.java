@@ -1,6 +1,8 @@
 package com.finance.loanms.model.entity;
 
 import com.finance.loanms.model.enumtype.LoanStatus;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,9 +19,13 @@ import java.util.List;
 public class LoanAccount extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_account_seq")
+    @SequenceGenerator(name = "loan_account_seq", sequenceName = "loan_account_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private long version;
+
     @Column(nullable = false, unique = true)
     private String loanId;
 
@@ -53,4 +59,20 @@ public class LoanAccount extends Auditable {
 
     @Enumerated(EnumType.STRING)
     private LoanStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private ScheduleStorage scheduleStorage;
+
+    @Enumerated(EnumType.STRING)
+    private AmortizationMethod amortizationMethod;
+
+    // Installment from which the current rate applies, and the principal outstanding just before it
+    private Integer rateResetInstallment;
+    private Double rateResetBalance;
+
+    // Lowest installment number not yet paid; tenure + 1 once everything is paid, null for loans predating it
+    private Integer nextDueInstallment;
+
+    // Unpaid part of the loan's charges, kept in step with them; null for loans predating it
+    private Double outstandingCharges;
 }
@@ -0,0 +1,47 @@
+package com.finance.loanms.model.entity;
+
+import com.finance.loanms.model.enumtype.QueuedRepaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A repayment accepted by the asynchronous endpoint and waiting to be applied. The row is the
+ * durable queue entry and, once processed, the outcome reported by the status endpoint.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_queued_repayment_status", columnList = "status, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueuedRepayment extends Auditable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "queued_repayment_seq")
+    @SequenceGenerator(name = "queued_repayment_seq", sequenceName = "queued_repayment_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    private Double amountPaid;
+    private LocalDate paymentDate;
+    private String mode;
+
+    // Unique so a gateway re-sending the same payment gets the original tracking id back
+    @Column(nullable = false, unique = true)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    private QueuedRepaymentStatus status;
+
+    private String message;
+
+    // Node applying the entry and until when; see WorkLease
+    private String owner;
+    private LocalDateTime leaseExpiresAt;
+}
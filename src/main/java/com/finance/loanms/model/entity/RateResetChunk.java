@@ -0,0 +1,36 @@
+package com.finance.loanms.model.entity;
+
+import com.finance.loanms.model.enumtype.RateResetStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A loan-id range of a {@link RateResetJob}. Chunks are the unit of work and of progress:
+ * a crashed job is resumed by re-running every chunk that is not COMPLETED.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateResetChunk extends Auditable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rate_reset_chunk_seq")
+    @SequenceGenerator(name = "rate_reset_chunk_seq", sequenceName = "rate_reset_chunk_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private RateResetJob job;
+
+    private long fromLoanId;
+    private long toLoanId;
+
+    @Enumerated(EnumType.STRING)
+    private RateResetStatus status;
+
+    private int loansRepriced;
+    private int installmentsUpdated;
+    private String lastError;
+}
@@ -0,0 +1,37 @@
+package com.finance.loanms.model.entity;
+
+import com.finance.loanms.model.enumtype.RateResetStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateResetJob extends Auditable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rate_reset_job_seq")
+    @SequenceGenerator(name = "rate_reset_job_seq", sequenceName = "rate_reset_job_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private double newRate;
+
+    @Column(nullable = false)
+    private LocalDate effectiveDate;
+
+    @Enumerated(EnumType.STRING)
+    private RateResetStatus status;
+
+    private int totalChunks;
+
+    // Node running the job and until when; see WorkLease
+    private String owner;
+    private LocalDateTime leaseExpiresAt;
+}
@@ -11,10 +11,12 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_repayment_loan_date_id", columnList = "loan_account_id, payment_date, id"))
 public class Repayment extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repayment_seq")
+    @SequenceGenerator(name = "repayment_seq", sequenceName = "repayment_seq", allocationSize = 50)
     private Long id;
 
     private double amount;
@@ -0,0 +1,38 @@
+package com.finance.loanms.model.entity;
+
+import com.finance.loanms.model.enumtype.IngestStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepaymentIngestJob extends Auditable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repayment_ingest_job_seq")
+    @SequenceGenerator(name = "repayment_ingest_job_seq", sequenceName = "repayment_ingest_job_seq", allocationSize = 50)
+    private Long id;
+
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    private IngestStatus status;
+
+    private long totalLines;
+    private long postedLines;
+    private long rejectedLines;
+
+    // Per-line outcome CSV written next to the uploaded file
+    private String resultPath;
+    private String lastError;
+
+    // Node running the job and until when; see WorkLease
+    private String owner;
+    private LocalDateTime leaseExpiresAt;
+}
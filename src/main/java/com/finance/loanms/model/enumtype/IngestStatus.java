@@ -0,0 +1,8 @@
+package com.finance.loanms.model.enumtype;
+
+public enum IngestStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.finance.loanms.model.enumtype;
+
+public enum QueuedRepaymentStatus {
+    QUEUED,
+    PROCESSING,
+    APPLIED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.finance.loanms.model.enumtype;
+
+public enum RateResetStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.finance.loanms.model.enumtype;
+
+public enum ScheduleStorage {
+    MATERIALIZED, // every installment stored as a row at origination
+    VIRTUAL       // installments derived from loan terms; rows stored only once touched
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Data
@@ -16,4 +17,10 @@ public class RiskAssessment {
     private boolean isApproved;
     private double riskScore;
     private String reason;
+    // Stand-in decision made because the real scorer could not answer; never cached
+    @JsonIgnore
+    private boolean fallback;
+    // Which scorer made the decision when a composite did not use its main one
+    @JsonIgnore
+    private String source;
 }
@@ -0,0 +1,59 @@
+package com.finance.loanms.repayment.allocation;
+
+/**
+ * Result of {@link AllocationEngine#allocate}: amounts in cents, indexed like the engine's input arrays.
+ */
+public final class Allocation {
+
+    private final long[] charges;
+    private final long[] interest;
+    private final long[] principal;
+    private final long[] bucketTotals = new long[AllocationBucket.values().length];
+    private long unallocated;
+
+    Allocation(int chargeCount, int installmentCount) {
+        this.charges = new long[chargeCount];
+        this.interest = new long[installmentCount];
+        this.principal = new long[installmentCount];
+    }
+
+    void addCharge(int index, long cents) {
+        charges[index] += cents;
+        bucketTotals[AllocationBucket.CHARGES.ordinal()] += cents;
+    }
+
+    void addInterest(AllocationBucket bucket, int index, long cents) {
+        interest[index] += cents;
+        bucketTotals[bucket.ordinal()] += cents;
+    }
+
+    void addPrincipal(AllocationBucket bucket, int index, long cents) {
+        principal[index] += cents;
+        bucketTotals[bucket.ordinal()] += cents;
+    }
+
+    void setUnallocated(long cents) {
+        this.unallocated = cents;
+    }
+
+    public long toCharge(int index) {
+        return charges[index];
+    }
+
+    public long toInterest(int installmentIndex) {
+        return interest[installmentIndex];
+    }
+
+    public long toPrincipal(int installmentIndex) {
+        return principal[installmentIndex];
+    }
+
+    public long total(AllocationBucket bucket) {
+        return bucketTotals[bucket.ordinal()];
+    }
+
+    /** Part of the payment left over once every bucket in the order was settled. */
+    public long unallocated() {
+        return unallocated;
+    }
+}
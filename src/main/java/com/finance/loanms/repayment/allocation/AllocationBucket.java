@@ -0,0 +1,13 @@
+package com.finance.loanms.repayment.allocation;
+
+/** Where a repayment can go, applied in the order configured by {@code repayment.allocation.order}. */
+public enum AllocationBucket {
+    /** Unpaid charges, oldest first. */
+    CHARGES,
+    /** Interest of installments already due, oldest first. */
+    INTEREST,
+    /** Principal of installments already due, oldest first. */
+    PRINCIPAL,
+    /** Installments not yet due, one whole installment (interest, then principal) at a time. */
+    FUTURE
+}
@@ -0,0 +1,96 @@
+package com.finance.loanms.repayment.allocation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits a payment across outstanding charges and installments in one pass over primitive arrays.
+ * <p>
+ * Everything is in cents so a split never leaves sub-cent residue behind. Installments are passed in
+ * due-date order; the first {@code overdueCount} of them are already due and feed the INTEREST and
+ * PRINCIPAL buckets, the rest can only be reached through FUTURE.
+ */
+public final class AllocationEngine {
+
+    private AllocationEngine() {
+    }
+
+    /** Parses and checks a configured order such as {@code CHARGES,INTEREST,PRINCIPAL,FUTURE}. */
+    public static List<AllocationBucket> parseOrder(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            throw new IllegalArgumentException("Allocation order cannot be empty");
+        }
+        Set<AllocationBucket> seen = EnumSet.noneOf(AllocationBucket.class);
+        List<AllocationBucket> order = new ArrayList<>(names.size());
+        for (String name : names) {
+            AllocationBucket bucket = AllocationBucket.valueOf(name.trim().toUpperCase());
+            if (!seen.add(bucket)) {
+                throw new IllegalArgumentException("Allocation bucket " + bucket + " is listed twice");
+            }
+            order.add(bucket);
+        }
+        return List.copyOf(order);
+    }
+
+    /**
+     * @param chargeDue    outstanding cents per charge, in settlement order
+     * @param interestDue  outstanding interest cents per installment, in due-date order
+     * @param principalDue outstanding principal cents per installment, in due-date order
+     * @param overdueCount how many leading installments are already due
+     */
+    public static Allocation allocate(long amount, List<AllocationBucket> order, long[] chargeDue,
+                                      long[] interestDue, long[] principalDue, int overdueCount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than 0");
+        }
+        if (interestDue.length != principalDue.length || overdueCount < 0 || overdueCount > interestDue.length) {
+            throw new IllegalArgumentException("Installment arrays do not line up");
+        }
+
+        Allocation allocation = new Allocation(chargeDue.length, interestDue.length);
+        long remaining = amount;
+        for (AllocationBucket bucket : order) {
+            switch (bucket) {
+                case CHARGES -> {
+                    for (int i = 0; i < chargeDue.length && remaining > 0; i++) {
+                        long paid = Math.min(remaining, chargeDue[i]);
+                        allocation.addCharge(i, paid);
+                        remaining -= paid;
+                    }
+                }
+                case INTEREST -> {
+                    for (int i = 0; i < overdueCount && remaining > 0; i++) {
+                        long paid = Math.min(remaining, interestDue[i] - allocation.toInterest(i));
+                        allocation.addInterest(bucket, i, paid);
+                        remaining -= paid;
+                    }
+                }
+                case PRINCIPAL -> {
+                    for (int i = 0; i < overdueCount && remaining > 0; i++) {
+                        long paid = Math.min(remaining, principalDue[i] - allocation.toPrincipal(i));
+                        allocation.addPrincipal(bucket, i, paid);
+                        remaining -= paid;
+                    }
+                }
+                case FUTURE -> {
+                    for (int i = overdueCount; i < interestDue.length && remaining > 0; i++) {
+                        long interest = Math.min(remaining, interestDue[i]);
+                        allocation.addInterest(bucket, i, interest);
+                        remaining -= interest;
+                        long principal = Math.min(remaining, principalDue[i]);
+                        allocation.addPrincipal(bucket, i, principal);
+                        remaining -= principal;
+                    }
+                }
+            }
+        }
+        allocation.setUnallocated(remaining);
+        return allocation;
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+}
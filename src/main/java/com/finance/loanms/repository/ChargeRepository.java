@@ -4,6 +4,9 @@ import com.finance.loanms.model.entity.Charge;
 import com.finance.loanms.model.entity.LoanAccount;
 import com.finance.loanms.model.enumtype.ChargeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,5 +22,18 @@ public interface ChargeRepository extends JpaRepository<Charge, Long> {
 
     List<Charge> findByLoanAccountAndIsPaidFalse(LoanAccount loanAccount);
 
+    List<Charge> findByLoanAccountAndIsPaidFalseOrderByAppliedDateAscIdAsc(LoanAccount loanAccount);
+
     boolean existsByLoanAccountIdAndIsPaidFalse(Long loanId);
+
+    @Query("SELECT COALESCE(SUM(c.amount - c.paidAmount), 0) FROM Charge c WHERE c.loanAccount.id = :loanId AND c.isPaid = false")
+    double sumOutstanding(@Param("loanId") Long loanId);
+
+    /** Settles every unpaid charge of the loan in one statement. */
+    @Modifying
+    @Query("""
+            UPDATE Charge c SET c.isPaid = true, c.paidAmount = c.amount, c.version = c.version + 1
+            WHERE c.loanAccount.id = :loanId AND c.isPaid = false
+            """)
+    int settleAllOutstanding(@Param("loanId") Long loanId);
 }
@@ -1,11 +1,21 @@
 package com.finance.loanms.repository;
 
+import com.finance.loanms.dto.response.InstallmentExportRow;
 import com.finance.loanms.model.entity.Installment;
 import com.finance.loanms.model.entity.LoanAccount;
 import com.finance.loanms.model.enumtype.InstallmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface InstallmentRepository extends JpaRepository<Installment, Long> {
 
@@ -18,5 +28,55 @@ public interface InstallmentRepository extends JpaRepository<Installment, Long>
     List<Installment> findByLoanAccountAndInstallmentNumberGreaterThanEqual(LoanAccount loanAccount, int installmentNumber);
 
     boolean existsByLoanAccountIdAndStatus(Long loanAccountId, InstallmentStatus status);
-}
 
+    boolean existsByLoanAccountIdAndStatusNot(Long loanAccountId, InstallmentStatus status);
+
+    List<Installment> findByLoanAccountIdAndInstallmentNumberBetweenOrderByInstallmentNumberAsc(
+            Long loanAccountId, int fromNumber, int toNumber);
+
+    long countByLoanAccount(LoanAccount loanAccount);
+
+    Optional<Installment> findByLoanAccountIdAndInstallmentNumber(Long loanAccountId, int installmentNumber);
+
+    Optional<Installment> findFirstByLoanAccountIdAndStatusNotOrderByInstallmentNumberAsc(Long loanAccountId, InstallmentStatus status);
+
+    @Query("SELECT COALESCE(SUM(i.principalComponent), 0) FROM Installment i WHERE i.loanAccount = :loanAccount AND i.installmentNumber < :installmentNumber")
+    double sumPrincipalComponentBefore(@Param("loanAccount") LoanAccount loanAccount, @Param("installmentNumber") int installmentNumber);
+
+    /** Forward-only read of a stored schedule; MySQL streams rows when the fetch size is Integer.MIN_VALUE. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.finance.loanms.dto.response.InstallmentExportRow(
+                i.loanAccount.id, i.installmentNumber, i.dueDate, i.principalComponent,
+                i.interestComponent, i.totalAmount, i.status)
+            FROM Installment i WHERE i.loanAccount.id = :loanId ORDER BY i.installmentNumber
+            """)
+    Stream<InstallmentExportRow> streamExportRows(@Param("loanId") Long loanId);
+
+    /**
+     * Reprices, in one statement, every unpaid installment due on or after {@code effectiveDate} of the
+     * active FLOATING loans in the id range whose schedule is materialized and amortized flat. Installments
+     * with money against them keep their amounts, so interest due never drops below interest paid.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE installment i
+            JOIN loan_account l ON l.id = i.loan_account_id
+            SET i.interest_component = l.principal * :monthlyRate,
+                i.total_amount = i.principal_component + l.principal * :monthlyRate,
+                i.version = i.version + 1
+            WHERE l.id BETWEEN :fromId AND :toId
+              AND l.type = 'FLOATING' AND l.status = 'ACTIVE'
+              AND COALESCE(l.schedule_storage, 'MATERIALIZED') = 'MATERIALIZED'
+              AND COALESCE(l.amortization_method, :defaultMethod) = 'FLAT'
+              AND i.due_date >= :effectiveDate
+              AND i.status = 'DUE'
+            """, nativeQuery = true)
+    int repriceFlatFloatingInstallments(@Param("fromId") long fromId, @Param("toId") long toId,
+                                        @Param("monthlyRate") double monthlyRate,
+                                        @Param("effectiveDate") LocalDate effectiveDate,
+                                        @Param("defaultMethod") String defaultMethod);
+}
@@ -2,8 +2,12 @@ package com.finance.loanms.repository;
 
 import com.finance.loanms.model.entity.Customer;
 import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.model.enumtype.InterestType;
 import com.finance.loanms.model.enumtype.LoanStatus;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -47,4 +51,45 @@ public interface LoanAccountRepository extends JpaRepository<LoanAccount, Long>
 
     @Query("SELECT SUM(la.principal) FROM LoanAccount la WHERE la.customer = :customer AND la.status = :status")
     Double sumPrincipalByCustomerAndStatus(@Param("customer") Customer customer, @Param("status") LoanStatus status);
+
+    @Query("SELECT MIN(la.id) FROM LoanAccount la WHERE la.interestRate.type = :type AND la.status = :status")
+    Long findMinIdByInterestTypeAndStatus(@Param("type") InterestType type, @Param("status") LoanStatus status);
+
+    @Query("SELECT MAX(la.id) FROM LoanAccount la WHERE la.interestRate.type = :type AND la.status = :status")
+    Long findMaxIdByInterestTypeAndStatus(@Param("type") InterestType type, @Param("status") LoanStatus status);
+
+    /**
+     * Sets the new base rate on the loans whose installments {@link InstallmentRepository#repriceFlatFloatingInstallments}
+     * reprices, skipping loans with nothing left to reprice.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE loan_account l SET l.base_rate = :newRate, l.version = l.version + 1
+            WHERE l.id BETWEEN :fromId AND :toId
+              AND l.type = 'FLOATING' AND l.status = 'ACTIVE'
+              AND COALESCE(l.schedule_storage, 'MATERIALIZED') = 'MATERIALIZED'
+              AND COALESCE(l.amortization_method, :defaultMethod) = 'FLAT'
+              AND EXISTS (SELECT 1 FROM installment i WHERE i.loan_account_id = l.id AND i.due_date >= :effectiveDate)
+            """, nativeQuery = true)
+    int updateFlatFloatingBaseRate(@Param("fromId") long fromId, @Param("toId") long toId,
+                                   @Param("newRate") double newRate,
+                                   @Param("effectiveDate") LocalDate effectiveDate,
+                                   @Param("defaultMethod") String defaultMethod);
+
+    /**
+     * Active FLOATING loans in the id range that cannot be repriced with plain SQL: virtual schedules
+     * and reducing-balance loans, whose amounts depend on the outstanding balance.
+     */
+    @Query("""
+            SELECT la.id FROM LoanAccount la
+            WHERE la.id BETWEEN :fromId AND :toId
+              AND la.interestRate.type = :type AND la.status = :status
+              AND (la.scheduleStorage = :virtual OR COALESCE(la.amortizationMethod, :defaultMethod) <> :flat)
+            ORDER BY la.id
+            """)
+    List<Long> findIdsNeedingEngineRepricing(@Param("fromId") long fromId, @Param("toId") long toId,
+                                             @Param("type") InterestType type, @Param("status") LoanStatus status,
+                                             @Param("virtual") ScheduleStorage virtual,
+                                             @Param("defaultMethod") AmortizationMethod defaultMethod,
+                                             @Param("flat") AmortizationMethod flat);
 }
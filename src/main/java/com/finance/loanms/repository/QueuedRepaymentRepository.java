@@ -0,0 +1,51 @@
+package com.finance.loanms.repository;
+
+import com.finance.loanms.model.entity.QueuedRepayment;
+import com.finance.loanms.model.enumtype.QueuedRepaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface QueuedRepaymentRepository extends JpaRepository<QueuedRepayment, Long> {
+
+    Optional<QueuedRepayment> findByTransactionId(String transactionId);
+
+    List<QueuedRepayment> findByStatusInOrderByIdAsc(List<QueuedRepaymentStatus> statuses);
+
+    /**
+     * Moves the entry from {@code from} to {@code to} under {@code owner}; returns 0 when another worker
+     * got there first.
+     */
+    @Modifying
+    @Query("""
+            UPDATE QueuedRepayment q SET q.status = :to, q.owner = :owner, q.leaseExpiresAt = :until
+            WHERE q.id = :id AND q.status = :from
+            """)
+    int transition(@Param("id") Long id, @Param("from") QueuedRepaymentStatus from,
+                   @Param("to") QueuedRepaymentStatus to, @Param("owner") String owner,
+                   @Param("until") LocalDateTime until);
+
+    /**
+     * Takes over an entry left {@code status} by {@code owner} itself or by a node whose lease has lapsed,
+     * putting it back to QUEUED; returns 0 when a live node still holds it.
+     */
+    @Modifying
+    @Query("""
+            UPDATE QueuedRepayment q SET q.status = :queued, q.owner = :owner, q.leaseExpiresAt = :until
+            WHERE q.id = :id AND q.status = :status
+              AND (q.owner IS NULL OR q.owner = :owner OR q.leaseExpiresAt < :now)
+            """)
+    int reclaim(@Param("id") Long id, @Param("status") QueuedRepaymentStatus status,
+                @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until, @Param("queued") QueuedRepaymentStatus queued);
+
+    @Modifying
+    @Query("UPDATE QueuedRepayment q SET q.leaseExpiresAt = :until WHERE q.owner = :owner AND q.status IN :statuses")
+    int renewLeases(@Param("owner") String owner, @Param("statuses") List<QueuedRepaymentStatus> statuses,
+                    @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,22 @@
+package com.finance.loanms.repository;
+
+import com.finance.loanms.model.entity.RateResetChunk;
+import com.finance.loanms.model.enumtype.RateResetStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RateResetChunkRepository extends JpaRepository<RateResetChunk, Long> {
+
+    List<RateResetChunk> findByJobIdAndStatusNotOrderByFromLoanIdAsc(Long jobId, RateResetStatus status);
+
+    long countByJobIdAndStatus(Long jobId, RateResetStatus status);
+
+    @Query("SELECT COALESCE(SUM(c.loansRepriced), 0) FROM RateResetChunk c WHERE c.job.id = :jobId")
+    long sumLoansRepriced(@Param("jobId") Long jobId);
+
+    @Query("SELECT COALESCE(SUM(c.installmentsUpdated), 0) FROM RateResetChunk c WHERE c.job.id = :jobId")
+    long sumInstallmentsUpdated(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,35 @@
+package com.finance.loanms.repository;
+
+import com.finance.loanms.model.entity.RateResetJob;
+import com.finance.loanms.model.enumtype.RateResetStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RateResetJobRepository extends JpaRepository<RateResetJob, Long> {
+
+    List<RateResetJob> findByStatus(RateResetStatus status);
+
+    /**
+     * Marks the job RUNNING under {@code owner} unless it has completed or another node holds an
+     * unexpired lease on it; returns 0 when the job was not claimed.
+     */
+    @Modifying
+    @Query("""
+            UPDATE RateResetJob j SET j.status = :running, j.owner = :owner, j.leaseExpiresAt = :until
+            WHERE j.id = :id AND j.status <> :completed
+              AND (j.status <> :running OR j.owner IS NULL OR j.owner = :owner OR j.leaseExpiresAt < :now)
+            """)
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until, @Param("running") RateResetStatus running,
+              @Param("completed") RateResetStatus completed);
+
+    @Modifying
+    @Query("UPDATE RateResetJob j SET j.leaseExpiresAt = :until WHERE j.owner = :owner AND j.status = :status")
+    int renewLeases(@Param("owner") String owner, @Param("status") RateResetStatus status,
+                    @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,35 @@
+package com.finance.loanms.repository;
+
+import com.finance.loanms.model.entity.RepaymentIngestJob;
+import com.finance.loanms.model.enumtype.IngestStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RepaymentIngestJobRepository extends JpaRepository<RepaymentIngestJob, Long> {
+
+    List<RepaymentIngestJob> findByStatusIn(List<IngestStatus> statuses);
+
+    /**
+     * Fails an unfinished job that was run by {@code owner} or whose owner's lease has lapsed; returns 0
+     * when the job finished or is still held by a live node.
+     */
+    @Modifying
+    @Query("""
+            UPDATE RepaymentIngestJob j SET j.status = :failed, j.lastError = :error
+            WHERE j.id = :id AND j.status IN :unfinished
+              AND (j.owner IS NULL OR j.owner = :owner OR j.leaseExpiresAt < :now)
+            """)
+    int failAbandoned(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                      @Param("unfinished") List<IngestStatus> unfinished, @Param("failed") IngestStatus failed,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE RepaymentIngestJob j SET j.leaseExpiresAt = :until WHERE j.owner = :owner AND j.status IN :statuses")
+    int renewLeases(@Param("owner") String owner, @Param("statuses") List<IngestStatus> statuses,
+                    @Param("until") LocalDateTime until);
+}
@@ -1,14 +1,65 @@
 package com.finance.loanms.repository;
 
+import com.finance.loanms.dto.response.RepaymentExportRow;
+import com.finance.loanms.dto.response.RepaymentHistory;
 import com.finance.loanms.model.entity.LoanAccount;
 import com.finance.loanms.model.entity.Repayment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
 
     boolean existsByTransactionId(String transactionId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.transactionId FROM Repayment r WHERE r.transactionId IS NOT NULL")
+    Stream<String> streamAllTransactionIds();
+
+    @Query("SELECT r.transactionId FROM Repayment r WHERE r.transactionId IN :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+
     List<Repayment> findByLoanAccountOrderByPaymentDateAsc(LoanAccount loanAccount);
+
+    /**
+     * One page of a loan's history in (paymentDate, id) order, starting just after the given key.
+     * Served from idx_repayment_loan_date_id without loading any entity.
+     */
+    @Query("""
+            SELECT new com.finance.loanms.dto.response.RepaymentHistory(
+                r.id, r.amount, r.paymentDate, r.mode, r.transactionId, i.installmentNumber)
+            FROM Repayment r JOIN r.installment i
+            WHERE r.loanAccount.id = :loanId
+              AND r.paymentDate <= :to
+              AND (r.paymentDate > :afterDate OR (r.paymentDate = :afterDate AND r.id > :afterId))
+            ORDER BY r.paymentDate, r.id
+            """)
+    List<RepaymentHistory> findHistoryPage(@Param("loanId") Long loanId, @Param("afterDate") LocalDate afterDate,
+                                           @Param("afterId") long afterId, @Param("to") LocalDate to, Limit limit);
+
+    /** Forward-only read across all loans; MySQL streams rows when the fetch size is Integer.MIN_VALUE. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.finance.loanms.dto.response.RepaymentExportRow(
+                r.id, r.loanAccount.id, r.installment.installmentNumber, r.amount,
+                r.paymentDate, r.mode, r.transactionId)
+            FROM Repayment r WHERE r.paymentDate BETWEEN :from AND :to
+            ORDER BY r.paymentDate, r.id
+            """)
+    Stream<RepaymentExportRow> streamExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
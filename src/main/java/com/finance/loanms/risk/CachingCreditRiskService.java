@@ -0,0 +1,46 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.service.CreditRiskService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * Remembers decisions by {@link RiskRequestKey}, so an application resubmitted with only unrelated
+ * fields changed is not scored again. Only answers the scorer actually gave are kept: a call that throws
+ * or returns a {@link RiskAssessment#isFallback() fallback} is passed through uncached.
+ */
+public class CachingCreditRiskService implements CreditRiskService {
+
+    private final CreditRiskService delegate;
+    private final Cache<RiskRequestKey, RiskAssessment> cache;
+
+    public CachingCreditRiskService(CreditRiskService delegate, long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "creditRisk");
+    }
+
+    @Override
+    public RiskAssessment assessRisk(CreateLoanRequest request) {
+        RiskRequestKey key = RiskRequestKey.of(request);
+        RiskAssessment cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        RiskAssessment assessment = delegate.assessRisk(request);
+        if (assessment != null && !assessment.isFallback()) {
+            cache.put(key, assessment);
+        }
+        return assessment;
+    }
+}
@@ -0,0 +1,158 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.service.CreditRiskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores with {@code primary} (the ML service) under a deadline, falling back to {@code backup}
+ * (the rules) when it cannot answer in time.
+ * <p>
+ * Each call starts the primary and the backup together on virtual threads. If the primary has not answered
+ * by its recent p95, or fails before that, one hedged request is sent and whichever primary answer arrives
+ * first wins. When the deadline passes, or both attempts fail or fall back, the backup's decision is returned
+ * tagged with {@code source = "rule-based"} and marked as a fallback so it is never cached.
+ * <p>
+ * Losing attempts are left to finish rather than interrupted: interrupting an in-flight ML call would
+ * count against the circuit breaker, and the HTTP read timeout bounds how long they linger.
+ */
+@Slf4j
+public class HedgedCreditRiskService implements CreditRiskService, AutoCloseable {
+
+    public static final String BACKUP_SOURCE = "rule-based";
+
+    private final CreditRiskService primary;
+    private final CreditRiskService backup;
+    private final long deadlineNanos;
+    private final long minHedgeDelayNanos;
+    private final long initialHedgeDelayNanos;
+    private final LatencyWindow primaryLatency = new LatencyWindow(1024, 0.95);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter hedges;
+    private final Counter primaryDecisions;
+    private final Counter deadlineFallbacks;
+    private final Counter failureFallbacks;
+
+    public HedgedCreditRiskService(CreditRiskService primary, CreditRiskService backup, Duration deadline,
+                                   Duration minHedgeDelay, Duration initialHedgeDelay, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.backup = backup;
+        this.deadlineNanos = deadline.toNanos();
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.initialHedgeDelayNanos = initialHedgeDelay.toNanos();
+        this.hedges = Counter.builder("credit.risk.hedge.requests")
+                .description("Second ML requests sent because the first was slower than p95")
+                .register(meterRegistry);
+        this.primaryDecisions = decisions(meterRegistry, "ml");
+        this.deadlineFallbacks = decisions(meterRegistry, "rule-based-deadline");
+        this.failureFallbacks = decisions(meterRegistry, "rule-based-failure");
+        Gauge.builder("credit.risk.hedge.delay", this, service -> service.hedgeDelayNanos() / 1e6)
+                .description("Current hedge delay in milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RiskAssessment assessRisk(CreateLoanRequest request) {
+        long start = System.nanoTime();
+        long deadline = start + deadlineNanos;
+        long hedgeAt = start + hedgeDelayNanos();
+        CompletableFuture<RiskAssessment> backupResult = CompletableFuture.supplyAsync(() -> backup.assessRisk(request), executor);
+        ExecutorCompletionService<RiskAssessment> attempts = new ExecutorCompletionService<>(executor);
+        attempts.submit(() -> timedPrimary(request));
+        int outstanding = 1;
+        boolean hedged = false;
+
+        try {
+            while (outstanding > 0 || !hedged) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                if (!hedged && now >= hedgeAt) {
+                    attempts.submit(() -> timedPrimary(request));
+                    hedges.increment();
+                    hedged = true;
+                    outstanding++;
+                    continue;
+                }
+                Future<RiskAssessment> done = attempts.poll((hedged ? deadline : Math.min(hedgeAt, deadline)) - now,
+                        TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    continue;
+                }
+                outstanding--;
+                RiskAssessment result = answerOf(done);
+                if (result != null) {
+                    primaryDecisions.increment();
+                    return result;
+                }
+                // A fast failure is worth one immediate retry while there is time left
+                hedgeAt = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to assess credit risk: interrupted", e);
+        }
+
+        boolean timedOut = outstanding > 0;
+        (timedOut ? deadlineFallbacks : failureFallbacks).increment();
+        RiskAssessment decision = backupResult.join();
+        decision.setSource(BACKUP_SOURCE);
+        decision.setFallback(true);
+        decision.setReason("Rule-based decision, ML scoring " + (timedOut
+                ? "timed out after " + TimeUnit.NANOSECONDS.toMillis(deadlineNanos) + " ms" : "unavailable")
+                + ": " + decision.getReason());
+        return decision;
+    }
+
+    long hedgeDelayNanos() {
+        long p95 = primaryLatency.quantileNanos();
+        long delay = p95 < 0 ? initialHedgeDelayNanos : Math.max(p95, minHedgeDelayNanos);
+        return Math.min(delay, deadlineNanos);
+    }
+
+    private RiskAssessment timedPrimary(CreateLoanRequest request) {
+        long start = System.nanoTime();
+        RiskAssessment result = primary.assessRisk(request);
+        if (result != null && !result.isFallback()) {
+            primaryLatency.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /** The attempt's decision, or null if it failed or only produced a fallback. */
+    private static RiskAssessment answerOf(Future<RiskAssessment> attempt) throws InterruptedException {
+        try {
+            RiskAssessment result = attempt.get();
+            return result == null || result.isFallback() ? null : result;
+        } catch (ExecutionException e) {
+            log.debug("ML scoring attempt failed: {}", e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("credit.risk.hedge.decisions")
+                .description("Decisions returned by the hedged scorer, by where they came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.finance.loanms.risk;
+
+import java.util.Arrays;
+
+/**
+ * The last {@code size} latencies in a ring, with one quantile of them kept up to date. The quantile is
+ * recomputed every {@code RECOMPUTE_EVERY} samples rather than per read, so reading it is a volatile load.
+ */
+public class LatencyWindow {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double quantile;
+    private int next;
+    private long count;
+    private volatile long current = -1;
+
+    public LatencyWindow(int size, double quantile) {
+        if (size < MIN_SAMPLES || quantile <= 0 || quantile > 1) {
+            throw new IllegalArgumentException("Window needs at least " + MIN_SAMPLES + " samples and a quantile in (0, 1]");
+        }
+        this.samples = new long[size];
+        this.quantile = quantile;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count++;
+        if (count >= MIN_SAMPLES && (count == MIN_SAMPLES || count % RECOMPUTE_EVERY == 0)) {
+            int filled = (int) Math.min(count, samples.length);
+            long[] sorted = Arrays.copyOf(samples, filled);
+            Arrays.sort(sorted);
+            current = sorted[Math.max(0, (int) Math.ceil(quantile * filled) - 1)];
+        }
+    }
+
+    /** The quantile in nanoseconds, or -1 until enough samples have been seen. */
+    public long quantileNanos() {
+        return current;
+    }
+}
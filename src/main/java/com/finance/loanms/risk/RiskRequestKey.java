@@ -0,0 +1,65 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * 128-bit SHA-256 prefix of the fields that affect a credit decision: principal, tenure, rate, income,
+ * credit score, employment status, existing debt and purpose. Anything else on the request (customer,
+ * interest type, stepped rates) can change without changing the key.
+ * <p>
+ * Fields are written in a fixed order with an explicit null marker, numbers as their IEEE bits with
+ * {@code -0.0} folded into {@code 0.0}, and text upper-cased as every scorer compares it case-insensitively.
+ */
+public record RiskRequestKey(long high, long low) {
+
+    public static RiskRequestKey of(CreateLoanRequest request) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        putNumber(buffer, request.getPrincipal());
+        putNumber(buffer, request.getTenureMonths());
+        putNumber(buffer, request.getInterestRate());
+        putNumber(buffer, request.getMonthlyIncome());
+        putNumber(buffer, request.getCreditScore());
+        putNumber(buffer, request.getExistingDebt());
+        digest.update(buffer.flip());
+        putText(digest, request.getEmploymentStatus());
+        putText(digest, request.getLoanPurpose());
+
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new RiskRequestKey(hash.getLong(), hash.getLong());
+    }
+
+    private static void putNumber(ByteBuffer buffer, Number value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        double number = value.doubleValue();
+        buffer.put((byte) 1).putLong(Double.doubleToLongBits(number == 0.0 ? 0.0 : number));
+    }
+
+    private static void putText(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        // Length prefix, so ("AB", "C") and ("A", "BC") differ
+        digest.update(ByteBuffer.allocate(5).put((byte) 1).putInt(bytes.length).flip());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.service.CreditRiskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Returns the {@code live} scorer's decision and replays the same application against the {@code shadow}
+ * scorer in the background, to compare the two on real traffic before switching.
+ * <p>
+ * Shadow calls run on a few virtual-thread workers fed by a bounded queue; when the queue is full the
+ * comparison is dropped (and counted) rather than slowing origination down. Each comparison lands in a
+ * rolling window of the last {@code windowSize}, from which the {@code credit.risk.shadow.*} gauges report
+ * the agreement rate, the mean score delta (shadow minus live) and the p95 latency of each side. Idle
+ * workers time out, so the pool needs no shutdown.
+ */
+@Slf4j
+public class ShadowCreditRiskService implements CreditRiskService {
+
+    private final CreditRiskService live;
+    private final CreditRiskService shadow;
+    private final ThreadPoolExecutor workers;
+    private final RollingWindow window;
+    private final Counter dropped;
+    private final Counter shadowFailures;
+    private final Counter agreements;
+    private final Counter liveOnlyApprovals;
+    private final Counter shadowOnlyApprovals;
+
+    public ShadowCreditRiskService(CreditRiskService live, CreditRiskService shadow, int workerCount, int queueCapacity,
+                                   int windowSize, MeterRegistry meterRegistry) {
+        this.live = live;
+        this.shadow = shadow;
+        this.window = new RollingWindow(windowSize);
+        this.dropped = Counter.builder("credit.risk.shadow.dropped")
+                .description("Shadow comparisons skipped because the queue was full")
+                .register(meterRegistry);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("risk-shadow-", 0).factory(),
+                (task, executor) -> dropped.increment());
+        workers.allowCoreThreadTimeOut(true);
+
+        this.shadowFailures = Counter.builder("credit.risk.shadow.failures")
+                .description("Shadow calls that failed or only produced a fallback")
+                .register(meterRegistry);
+        this.agreements = comparisons(meterRegistry, "agree");
+        this.liveOnlyApprovals = comparisons(meterRegistry, "live-approves-only");
+        this.shadowOnlyApprovals = comparisons(meterRegistry, "shadow-approves-only");
+        gauge(meterRegistry, "credit.risk.shadow.agreement", "Share of recent decisions both scorers agreed on",
+                RollingWindow::agreementRate);
+        gauge(meterRegistry, "credit.risk.shadow.score.delta", "Mean recent shadow minus live risk score",
+                RollingWindow::meanScoreDelta);
+        gauge(meterRegistry, "credit.risk.shadow.score.delta.abs", "Mean recent absolute risk score difference",
+                RollingWindow::meanAbsScoreDelta);
+        gauge(meterRegistry, "credit.risk.shadow.latency.live.p95", "Recent live scorer p95 in milliseconds",
+                w -> w.p95Millis(true));
+        gauge(meterRegistry, "credit.risk.shadow.latency.shadow.p95", "Recent shadow scorer p95 in milliseconds",
+                w -> w.p95Millis(false));
+        gauge(meterRegistry, "credit.risk.shadow.samples", "Comparisons in the rolling window",
+                RollingWindow::size);
+    }
+
+    @Override
+    public RiskAssessment assessRisk(CreateLoanRequest request) {
+        long start = System.nanoTime();
+        RiskAssessment decision = live.assessRisk(request);
+        long liveNanos = System.nanoTime() - start;
+        if (decision != null && !decision.isFallback()) {
+            // Copy what the comparison needs now; the decision object belongs to the caller
+            boolean liveApproved = decision.isApproved();
+            double liveScore = decision.getRiskScore();
+            workers.execute(() -> compare(request, liveApproved, liveScore, liveNanos));
+        }
+        return decision;
+    }
+
+    public Stats stats() {
+        return window.stats();
+    }
+
+    private void compare(CreateLoanRequest request, boolean liveApproved, double liveScore, long liveNanos) {
+        long start = System.nanoTime();
+        RiskAssessment other;
+        try {
+            other = shadow.assessRisk(request);
+        } catch (Exception e) {
+            shadowFailures.increment();
+            log.debug("Shadow scoring failed: {}", e.getMessage());
+            return;
+        }
+        long shadowNanos = System.nanoTime() - start;
+        if (other == null || other.isFallback()) {
+            shadowFailures.increment();
+            return;
+        }
+        boolean agree = other.isApproved() == liveApproved;
+        window.add(agree, other.getRiskScore() - liveScore, liveNanos, shadowNanos);
+        if (agree) {
+            agreements.increment();
+        } else if (liveApproved) {
+            liveOnlyApprovals.increment();
+        } else {
+            shadowOnlyApprovals.increment();
+        }
+    }
+
+    private static Counter comparisons(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("credit.risk.shadow.comparisons")
+                .description("Live and shadow decisions compared, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description, ToDoubleFunction<RollingWindow> value) {
+        Gauge.builder(name, window, value).description(description).register(meterRegistry);
+    }
+
+    /** Figures over the comparisons currently in the window; rates and means are NaN while it is empty. */
+    public record Stats(int samples, double agreementRate, double meanScoreDelta, double meanAbsScoreDelta,
+                        double liveP95Millis, double shadowP95Millis) {
+    }
+
+    /** The last {@code size} comparisons as parallel primitive arrays. */
+    static final class RollingWindow {
+
+        private final boolean[] agreed;
+        private final double[] scoreDelta;
+        private final long[] liveNanos;
+        private final long[] shadowNanos;
+        private int next;
+        private int size;
+
+        RollingWindow(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Shadow window must hold at least one comparison");
+            }
+            this.agreed = new boolean[capacity];
+            this.scoreDelta = new double[capacity];
+            this.liveNanos = new long[capacity];
+            this.shadowNanos = new long[capacity];
+        }
+
+        synchronized void add(boolean agree, double delta, long live, long shadow) {
+            agreed[next] = agree;
+            scoreDelta[next] = delta;
+            liveNanos[next] = live;
+            shadowNanos[next] = shadow;
+            next = (next + 1) % agreed.length;
+            size = Math.min(size + 1, agreed.length);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized double agreementRate() {
+            int agreeing = 0;
+            for (int i = 0; i < size; i++) {
+                agreeing += agreed[i] ? 1 : 0;
+            }
+            return size == 0 ? Double.NaN : (double) agreeing / size;
+        }
+
+        synchronized double meanScoreDelta() {
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += scoreDelta[i];
+            }
+            return size == 0 ? Double.NaN : sum / size;
+        }
+
+        synchronized double meanAbsScoreDelta() {
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += Math.abs(scoreDelta[i]);
+            }
+            return size == 0 ? Double.NaN : sum / size;
+        }
+
+        synchronized double p95Millis(boolean liveSide) {
+            if (size == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(liveSide ? liveNanos : shadowNanos, size);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(0.95 * size) - 1)] / 1e6;
+        }
+
+        synchronized Stats stats() {
+            return new Stats(size, agreementRate(), meanScoreDelta(), meanAbsScoreDelta(), p95Millis(true), p95Millis(false));
+        }
+    }
+}
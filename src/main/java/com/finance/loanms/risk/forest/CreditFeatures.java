@@ -0,0 +1,75 @@
+package com.finance.loanms.risk.forest;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Java twin of {@code ml-service/features.py}. Any change there has to be made here as well;
+ * {@code ml-service/parity_cases.json} holds the features Python produces and the parity test checks these against it.
+ */
+public final class CreditFeatures {
+
+    /** Column order the model is trained and exported with. */
+    public static final List<String> COLUMNS = List.of("monthly_income", "credit_score", "loan_amount",
+            "tenure_months", "existing_debt", "employment_status", "loan_purpose");
+
+    public static final int MONTHLY_INCOME = 0;
+    public static final int CREDIT_SCORE = 1;
+    public static final int LOAN_AMOUNT = 2;
+    public static final int TENURE_MONTHS = 3;
+    public static final int EXISTING_DEBT = 4;
+    public static final int EMPLOYMENT_STATUS = 5;
+    public static final int LOAN_PURPOSE = 6;
+
+    private CreditFeatures() {
+    }
+
+    /** {@code map_employment_status}: salaried 2, self-employed 1, anything else 0. */
+    public static int employmentStatus(String status) {
+        String value = upper(status);
+        if (value.contains("SALARIED")) {
+            return 2;
+        } else if (value.contains("SELF")) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /** {@code map_loan_purpose}: education 1, home 2, business 3, anything else 0. */
+    public static int loanPurpose(String purpose) {
+        String value = upper(purpose);
+        if (value.contains("EDUCATION")) {
+            return 1;
+        } else if (value.contains("HOME")) {
+            return 2;
+        } else if (value.contains("BUSINESS")) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /** A numeric field as the model sees it: float32, with a missing value as NaN like pandas' None. */
+    public static float number(Number value) {
+        return value == null ? Float.NaN : value.floatValue();
+    }
+
+    /** Convenience for tests and tooling; the scorer reads the fields directly to avoid the array. */
+    public static float[] of(CreateLoanRequest request) {
+        return new float[]{
+                number(request.getMonthlyIncome()),
+                number(request.getCreditScore()),
+                number(request.getPrincipal()),
+                number(request.getTenureMonths()),
+                number(request.getExistingDebt()),
+                employmentStatus(request.getEmploymentStatus()),
+                loanPurpose(request.getLoanPurpose())
+        };
+    }
+
+    // str(None).upper() in Python
+    private static String upper(String value) {
+        return value == null ? "NONE" : value.toUpperCase(Locale.ROOT);
+    }
+}
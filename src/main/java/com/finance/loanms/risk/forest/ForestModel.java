@@ -0,0 +1,158 @@
+package com.finance.loanms.risk.forest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A random forest exported by {@code ml-service/train_model.py}, held as flat primitive arrays.
+ * <p>
+ * All trees share one set of node arrays; {@code roots} holds where each tree starts and child indices are
+ * absolute. Scoring walks each tree with the sklearn rule (input cast to float32, {@code x <= threshold}
+ * goes left, NaN follows {@code missingLeft}) and averages the leaf probabilities in tree order, so the
+ * result matches {@code predict_proba} and no objects are created per call.
+ */
+public final class ForestModel {
+
+    public static final String FORMAT = "loanms-forest-v1";
+
+    private static final int LEAF = -1;
+
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final boolean[] missingLeft;
+    private final double[] approval;
+
+    private ForestModel(int[] roots, int[] feature, double[] threshold, int[] left, int[] right,
+                        boolean[] missingLeft, double[] approval) {
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.missingLeft = missingLeft;
+        this.approval = approval;
+    }
+
+    public static ForestModel read(InputStream in, ObjectMapper objectMapper) throws IOException {
+        return parse(objectMapper.readTree(in));
+    }
+
+    public static ForestModel parse(JsonNode root) {
+        if (root == null || !FORMAT.equals(root.path("format").asText())) {
+            throw new IllegalArgumentException("Invalid model file: expected format " + FORMAT);
+        }
+        List<String> features = new ArrayList<>();
+        root.path("features").forEach(name -> features.add(name.asText()));
+        if (!CreditFeatures.COLUMNS.equals(features)) {
+            throw new IllegalArgumentException("Invalid model file: features " + features
+                    + " do not match " + CreditFeatures.COLUMNS);
+        }
+        JsonNode trees = root.path("trees");
+        if (!trees.isArray() || trees.isEmpty()) {
+            throw new IllegalArgumentException("Invalid model file: no trees");
+        }
+
+        int nodeCount = 0;
+        for (JsonNode tree : trees) {
+            nodeCount += tree.path("left").size();
+        }
+        int[] roots = new int[trees.size()];
+        int[] feature = new int[nodeCount];
+        double[] threshold = new double[nodeCount];
+        int[] left = new int[nodeCount];
+        int[] right = new int[nodeCount];
+        boolean[] missingLeft = new boolean[nodeCount];
+        double[] approval = new double[nodeCount];
+
+        int offset = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            JsonNode tree = trees.get(t);
+            int size = tree.path("left").size();
+            for (String column : List.of("right", "feature", "threshold", "missingLeft", "approval")) {
+                if (tree.path(column).size() != size) {
+                    throw new IllegalArgumentException("Invalid model file: tree " + t + " has ragged node arrays");
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Invalid model file: tree " + t + " is empty");
+            }
+            roots[t] = offset;
+            for (int i = 0; i < size; i++) {
+                int node = offset + i;
+                int l = tree.path("left").get(i).asInt();
+                int r = tree.path("right").get(i).asInt();
+                if (l == LEAF) {
+                    left[node] = LEAF;
+                    right[node] = LEAF;
+                    double p = tree.path("approval").get(i).asDouble();
+                    if (!(p >= 0 && p <= 1)) {
+                        throw new IllegalArgumentException("Invalid model file: tree " + t + " node " + i
+                                + " has probability " + p);
+                    }
+                    approval[node] = p;
+                    continue;
+                }
+                int f = tree.path("feature").get(i).asInt();
+                // Children always come after their parent, which also rules out cycles
+                if (l <= i || r <= i || l >= size || r >= size || f < 0 || f >= CreditFeatures.COLUMNS.size()) {
+                    throw new IllegalArgumentException("Invalid model file: tree " + t + " node " + i + " is malformed");
+                }
+                left[node] = offset + l;
+                right[node] = offset + r;
+                feature[node] = f;
+                threshold[node] = tree.path("threshold").get(i).asDouble();
+                missingLeft[node] = tree.path("missingLeft").get(i).asBoolean();
+            }
+            offset += size;
+        }
+        return new ForestModel(roots, feature, threshold, left, right, missingLeft, approval);
+    }
+
+    public int treeCount() {
+        return roots.length;
+    }
+
+    public int nodeCount() {
+        return feature.length;
+    }
+
+    /** Probability of the approved class, features in {@link CreditFeatures#COLUMNS} order. */
+    public double approvalProbability(float monthlyIncome, float creditScore, float loanAmount, float tenureMonths,
+                                      float existingDebt, float employmentStatus, float loanPurpose) {
+        double sum = 0;
+        for (int root : roots) {
+            int node = root;
+            while (left[node] != LEAF) {
+                float x = switch (feature[node]) {
+                    case CreditFeatures.MONTHLY_INCOME -> monthlyIncome;
+                    case CreditFeatures.CREDIT_SCORE -> creditScore;
+                    case CreditFeatures.LOAN_AMOUNT -> loanAmount;
+                    case CreditFeatures.TENURE_MONTHS -> tenureMonths;
+                    case CreditFeatures.EXISTING_DEBT -> existingDebt;
+                    case CreditFeatures.EMPLOYMENT_STATUS -> employmentStatus;
+                    default -> loanPurpose;
+                };
+                boolean goLeft = Float.isNaN(x) ? missingLeft[node] : x <= threshold[node];
+                node = goLeft ? left[node] : right[node];
+            }
+            sum += approval[node];
+        }
+        return sum / roots.length;
+    }
+
+    public double approvalProbability(float[] features) {
+        if (features.length != CreditFeatures.COLUMNS.size()) {
+            throw new IllegalArgumentException("Expected " + CreditFeatures.COLUMNS.size() + " features");
+        }
+        return approvalProbability(features[0], features[1], features[2], features[3],
+                features[4], features[5], features[6]);
+    }
+}
@@ -0,0 +1,248 @@
+package com.finance.loanms.schedule.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.dto.response.ScheduleResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of built {@link ScheduleResponse}s keyed by loan id.
+ * <p>
+ * The on-heap tier is bounded by the number of installment entries it holds, not by the number of
+ * loans, so a few long-tenure schedules cannot crowd out memory. An optional Redis tier is shared
+ * between instances. Writers call {@link #evict}; eviction runs after the surrounding transaction
+ * commits, and a per-loan stamp stops a read that started before the commit from re-caching the old schedule.
+ * With Redis, evictions are also published on a channel so every instance drops its on-heap copy.
+ */
+@Slf4j
+@Component
+public class ScheduleResponseCache {
+
+    private static final String KEY_PREFIX = "schedule:";
+    private static final String EVICTION_CHANNEL = "schedule:evictions";
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache<Long, ScheduleResponse> local;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final RedisMessageListenerContainer evictionListener;
+
+    public ScheduleResponseCache(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                                 ObjectProvider<StringRedisTemplate> redisTemplate,
+                                 @Value("${schedule.cache.max-installments:2000000}") long maxInstallments,
+                                 @Value("${schedule.cache.ttl:PT10M}") Duration ttl,
+                                 @Value("${schedule.cache.redis.enabled:false}") boolean redisEnabled) {
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(maxInstallments)
+                .weigher((Long loanId, ScheduleResponse response) -> response.getSchedule().size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "schedule");
+
+        this.redis = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.objectMapper = objectMapper;
+        this.redisTtl = ttl;
+        this.redisHits = Counter.builder("schedule.cache.redis").tag("result", "hit").register(meterRegistry);
+        this.redisMisses = Counter.builder("schedule.cache.redis").tag("result", "miss").register(meterRegistry);
+        this.evictionListener = redis == null ? null : listenForEvictions(redis);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (evictionListener != null) {
+            evictionListener.destroy();
+        }
+    }
+
+    /**
+     * Returns the cached schedule or builds it with {@code loader}. Nothing is cached while a
+     * read-write transaction is active, since the loader could then see uncommitted changes.
+     */
+    public ScheduleResponse get(Long loanId, Supplier<ScheduleResponse> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+
+        ScheduleResponse cached = local.getIfPresent(loanId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = stamps.get(stripe(loanId));
+
+        cached = readRedis(loanId);
+        if (cached != null) {
+            putLocal(loanId, stamp, cached);
+            return cached;
+        }
+
+        ScheduleResponse response = loader.get();
+        if (putLocal(loanId, stamp, response)) {
+            writeRedis(loanId, response);
+            if (stamps.get(stripe(loanId)) != stamp) {
+                invalidate(loanId);
+            }
+        }
+        return response;
+    }
+
+    /** Drops the schedule of a loan once the current transaction commits (immediately outside one). */
+    public void evict(Long loanId) {
+        invalidate(loanId);
+        afterCommit(() -> invalidate(loanId));
+    }
+
+    /** Drops the schedules of every loan in the id range, e.g. after a set-based reprice. */
+    public void evictRange(long fromLoanId, long toLoanId) {
+        Runnable invalidation = () -> {
+            List<String> keys = new ArrayList<>();
+            for (long loanId = fromLoanId; loanId <= toLoanId; loanId++) {
+                keys.add(KEY_PREFIX + loanId);
+            }
+            invalidateLocal(fromLoanId, toLoanId);
+            deleteRedis(keys);
+            publishEviction(fromLoanId, toLoanId);
+        };
+        invalidation.run();
+        afterCommit(invalidation);
+    }
+
+    private void invalidate(Long loanId) {
+        invalidateLocal(loanId, loanId);
+        deleteRedis(List.of(KEY_PREFIX + loanId));
+        publishEviction(loanId, loanId);
+    }
+
+    private void invalidateLocal(long fromLoanId, long toLoanId) {
+        if (fromLoanId == toLoanId) {
+            stamps.incrementAndGet(stripe(fromLoanId));
+            local.invalidate(fromLoanId);
+            return;
+        }
+        for (long loanId = fromLoanId; loanId <= toLoanId; loanId++) {
+            stamps.incrementAndGet(stripe(loanId));
+        }
+        local.asMap().keySet().removeIf(loanId -> loanId >= fromLoanId && loanId <= toLoanId);
+    }
+
+    // Other instances drop their on-heap copies; Redis itself was already cleared by the writer
+    private RedisMessageListenerContainer listenForEvictions(StringRedisTemplate redis) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        container.addMessageListener((message, pattern) -> {
+            try {
+                String[] range = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+                invalidateLocal(Long.parseLong(range[0]), Long.parseLong(range[1]));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed schedule cache eviction: {}", e.getMessage());
+            }
+        }, new ChannelTopic(EVICTION_CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    private void publishEviction(long fromLoanId, long toLoanId) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.convertAndSend(EVICTION_CHANNEL, fromLoanId + ":" + toLoanId);
+        } catch (Exception e) {
+            log.warn("Schedule cache eviction broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private boolean putLocal(Long loanId, long stamp, ScheduleResponse response) {
+        if (stamps.get(stripe(loanId)) != stamp) {
+            return false;
+        }
+        local.put(loanId, response);
+        if (stamps.get(stripe(loanId)) != stamp) {
+            // Evicted while we were storing: drop what may be a pre-commit read
+            local.invalidate(loanId);
+            return false;
+        }
+        return true;
+    }
+
+    private ScheduleResponse readRedis(Long loanId) {
+        if (redis == null) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(KEY_PREFIX + loanId);
+            if (json == null) {
+                redisMisses.increment();
+                return null;
+            }
+            redisHits.increment();
+            return objectMapper.readValue(json, ScheduleResponse.class);
+        } catch (Exception e) {
+            log.warn("Schedule cache read from Redis failed for loan {}: {}", loanId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(Long loanId, ScheduleResponse response) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(KEY_PREFIX + loanId, objectMapper.writeValueAsString(response), redisTtl);
+        } catch (Exception e) {
+            log.warn("Schedule cache write to Redis failed for loan {}: {}", loanId, e.getMessage());
+        }
+    }
+
+    private void deleteRedis(List<String> keys) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.delete(keys);
+        } catch (Exception e) {
+            log.warn("Schedule cache eviction from Redis failed: {}", e.getMessage());
+        }
+    }
+
+    private static int stripe(long loanId) {
+        return (int) Math.floorMod(loanId, (long) STAMP_STRIPES);
+    }
+}
@@ -0,0 +1,150 @@
+package com.finance.loanms.schedule.engine;
+
+import java.time.LocalDate;
+
+/**
+ * Stateless amortization calculator writing whole schedules into an {@link AmortizationSchedule}.
+ * <p>
+ * The inner loops only touch primitives: rates are walked with a cursor over the {@link RateTable}
+ * breakpoints and due dates are produced as epoch days, so no objects are created per installment.
+ */
+public final class AmortizationEngine {
+
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    private AmortizationEngine() {
+    }
+
+    public static AmortizationSchedule compute(AmortizationMethod method, double principal, int tenureMonths,
+                                               RateTable rates, LocalDate startDate) {
+        AmortizationSchedule schedule = new AmortizationSchedule(tenureMonths);
+        computeInto(method, principal, tenureMonths, rates, startDate, schedule);
+        return schedule;
+    }
+
+    public static void computeInto(AmortizationMethod method, double principal, int tenureMonths,
+                                   RateTable rates, LocalDate startDate, AmortizationSchedule out) {
+        computeRange(method, principal, tenureMonths, rates, startDate, 1, principal, out);
+    }
+
+    /**
+     * Computes installments {@code fromInstallment..tenureMonths} given the balance outstanding
+     * just before {@code fromInstallment}. Entries before {@code fromInstallment} are left as they are.
+     *
+     * @param principal      original loan principal (flat interest is always charged on it)
+     * @param openingBalance principal still outstanding before {@code fromInstallment}
+     */
+    public static void computeRange(AmortizationMethod method, double principal, int tenureMonths, RateTable rates,
+                                    LocalDate startDate, int fromInstallment, double openingBalance,
+                                    AmortizationSchedule out) {
+        if (principal <= 0) {
+            throw new IllegalArgumentException("Principal amount must be greater than 0");
+        }
+        if (tenureMonths <= 0) {
+            throw new IllegalArgumentException("Tenure must be greater than 0");
+        }
+        if (fromInstallment < 1 || fromInstallment > tenureMonths) {
+            throw new IllegalArgumentException("Installment " + fromInstallment + " is outside the loan tenure");
+        }
+
+        out.resize(tenureMonths);
+        fillDueDates(startDate, fromInstallment, tenureMonths, out);
+
+        if (method == AmortizationMethod.REDUCING_BALANCE) {
+            reducingBalance(tenureMonths, rates, fromInstallment, openingBalance, out);
+        } else {
+            flat(principal, tenureMonths, rates, fromInstallment, openingBalance, out);
+        }
+    }
+
+    private static void flat(double principal, int tenure, RateTable rates, int from, double balance,
+                             AmortizationSchedule out) {
+        double principalComponent = principal / tenure;
+        int cursor = rates.indexFor(from);
+        int next = cursor + 1;
+        double annualRate = cursor < 0 ? 0.0 : rates.annualRate(cursor);
+
+        for (int i = from; i <= tenure; i++) {
+            while (next < rates.size() && rates.fromInstallment(next) <= i) {
+                annualRate = rates.annualRate(next++);
+            }
+            double monthlyRate = annualRate / 12 / 100;
+            double interestComponent = principal * monthlyRate;
+            balance -= principalComponent;
+            out.set(i, principalComponent, interestComponent, balance);
+        }
+    }
+
+    private static void reducingBalance(int tenure, RateTable rates, int from, double balance,
+                                        AmortizationSchedule out) {
+        int cursor = rates.indexFor(from);
+        int next = cursor + 1;
+        double monthlyRate = (cursor < 0 ? 0.0 : rates.annualRate(cursor)) / 12 / 100;
+        double emi = emi(balance, monthlyRate, tenure - from + 1);
+
+        for (int i = from; i <= tenure; i++) {
+            if (next < rates.size() && rates.fromInstallment(next) <= i) {
+                while (next < rates.size() && rates.fromInstallment(next) <= i) {
+                    monthlyRate = rates.annualRate(next++) / 12 / 100;
+                }
+                emi = emi(balance, monthlyRate, tenure - i + 1);
+            }
+            double interestComponent = balance * monthlyRate;
+            double principalComponent = i == tenure ? balance : emi - interestComponent;
+            balance -= principalComponent;
+            out.set(i, principalComponent, interestComponent, balance);
+        }
+    }
+
+    /** Equated installment repaying {@code balance} over {@code periods} at {@code monthlyRate}. */
+    public static double emi(double balance, double monthlyRate, int periods) {
+        if (monthlyRate == 0) {
+            return balance / periods;
+        }
+        return balance * monthlyRate / (1 - Math.pow(1 + monthlyRate, -periods));
+    }
+
+    private static void fillDueDates(LocalDate startDate, int from, int tenure, AmortizationSchedule out) {
+        int year = startDate.getYear();
+        int month0 = startDate.getMonthValue() - 1;
+        int day = startDate.getDayOfMonth();
+        for (int i = from; i <= tenure; i++) {
+            int months = month0 + i;
+            int y = year + Math.floorDiv(months, 12);
+            int m = Math.floorMod(months, 12) + 1;
+            out.setDueDate(i, epochDay(y, m, Math.min(day, lengthOfMonth(y, m))));
+        }
+    }
+
+    // Same arithmetic as LocalDate.toEpochDay / plusMonths, without materializing LocalDate instances.
+    static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
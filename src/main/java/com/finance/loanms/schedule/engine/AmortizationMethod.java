@@ -0,0 +1,8 @@
+package com.finance.loanms.schedule.engine;
+
+public enum AmortizationMethod {
+    /** Equal principal slices, interest charged on the original principal every month. */
+    FLAT,
+    /** Equated monthly installment, interest charged on the outstanding balance. */
+    REDUCING_BALANCE
+}
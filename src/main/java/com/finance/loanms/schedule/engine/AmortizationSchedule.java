@@ -0,0 +1,94 @@
+package com.finance.loanms.schedule.engine;
+
+import java.time.LocalDate;
+
+/**
+ * Column-oriented schedule produced by {@link AmortizationEngine}.
+ * <p>
+ * Every column is a primitive array indexed by {@code installmentNumber - 1}; an instance can be
+ * reused across computations so that a whole schedule is produced without per-installment objects.
+ */
+public final class AmortizationSchedule {
+
+    private int size;
+    private double[] principal;
+    private double[] interest;
+    private double[] total;
+    private double[] closingBalance;
+    private long[] dueDateEpochDay;
+
+    public AmortizationSchedule(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    void resize(int newSize) {
+        if (newSize > principal.length) {
+            allocate(newSize);
+        }
+        this.size = newSize;
+    }
+
+    private void allocate(int capacity) {
+        principal = new double[capacity];
+        interest = new double[capacity];
+        total = new double[capacity];
+        closingBalance = new double[capacity];
+        dueDateEpochDay = new long[capacity];
+    }
+
+    void set(int installmentNumber, double principalComponent, double interestComponent, double balanceAfter) {
+        int i = installmentNumber - 1;
+        principal[i] = principalComponent;
+        interest[i] = interestComponent;
+        total[i] = principalComponent + interestComponent;
+        closingBalance[i] = balanceAfter;
+    }
+
+    void setDueDate(int installmentNumber, long epochDay) {
+        dueDateEpochDay[installmentNumber - 1] = epochDay;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double principalComponent(int installmentNumber) {
+        return principal[installmentNumber - 1];
+    }
+
+    public double interestComponent(int installmentNumber) {
+        return interest[installmentNumber - 1];
+    }
+
+    public double totalAmount(int installmentNumber) {
+        return total[installmentNumber - 1];
+    }
+
+    public double closingBalance(int installmentNumber) {
+        return closingBalance[installmentNumber - 1];
+    }
+
+    public long dueDateEpochDay(int installmentNumber) {
+        return dueDateEpochDay[installmentNumber - 1];
+    }
+
+    public LocalDate dueDate(int installmentNumber) {
+        return LocalDate.ofEpochDay(dueDateEpochDay[installmentNumber - 1]);
+    }
+
+    public double totalInterest() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += interest[i];
+        }
+        return sum;
+    }
+
+    public double totalPayable() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += total[i];
+        }
+        return sum;
+    }
+}
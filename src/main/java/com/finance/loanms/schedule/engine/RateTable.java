@@ -0,0 +1,114 @@
+package com.finance.loanms.schedule.engine;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Annual interest rates keyed by the installment number from which each rate applies.
+ * <p>
+ * Breakpoints are kept in two parallel primitive arrays sorted by installment number.
+ * Installments before the first breakpoint carry a rate of 0, which is how stepped
+ * rates have always been expanded.
+ */
+public final class RateTable {
+
+    private final int[] fromInstallment;
+    private final double[] annualRate;
+
+    private RateTable(int[] fromInstallment, double[] annualRate) {
+        this.fromInstallment = fromInstallment;
+        this.annualRate = annualRate;
+    }
+
+    public static RateTable flat(double annualRate) {
+        return new RateTable(new int[]{1}, new double[]{annualRate});
+    }
+
+    public static RateTable of(int[] fromInstallment, double[] annualRate) {
+        if (fromInstallment.length == 0 || fromInstallment.length != annualRate.length) {
+            throw new IllegalArgumentException("Rate table needs matching, non-empty breakpoint arrays");
+        }
+        for (int i = 0; i < fromInstallment.length; i++) {
+            if (fromInstallment[i] < 1 || (i > 0 && fromInstallment[i] <= fromInstallment[i - 1])) {
+                throw new IllegalArgumentException("Rate breakpoints must be positive and strictly increasing");
+            }
+        }
+        return new RateTable(fromInstallment.clone(), annualRate.clone());
+    }
+
+    /**
+     * Builds a table from a stepped-rate map (installment number -> annual rate). Works for both
+     * sparse step boundaries and fully expanded per-month maps; consecutive equal rates collapse
+     * into one breakpoint.
+     */
+    public static RateTable fromSteps(Map<Integer, Double> steps) {
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("Stepped rates cannot be empty");
+        }
+        int[] keys = new int[steps.size()];
+        int n = 0;
+        for (Integer key : steps.keySet()) {
+            if (key == null || steps.get(key) == null) {
+                throw new IllegalArgumentException("Stepped rates cannot contain null entries");
+            }
+            keys[n++] = key;
+        }
+        Arrays.sort(keys);
+
+        int[] from = new int[n];
+        double[] rates = new double[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (keys[i] < 1) {
+                throw new IllegalArgumentException("Stepped rate installment numbers must start at 1");
+            }
+            double rate = steps.get(keys[i]);
+            if (size > 0 && rates[size - 1] == rate) {
+                continue;
+            }
+            from[size] = keys[i];
+            rates[size] = rate;
+            size++;
+        }
+        return new RateTable(Arrays.copyOf(from, size), Arrays.copyOf(rates, size));
+    }
+
+    public int size() {
+        return fromInstallment.length;
+    }
+
+    public int fromInstallment(int index) {
+        return fromInstallment[index];
+    }
+
+    public double annualRate(int index) {
+        return annualRate[index];
+    }
+
+    /**
+     * Index of the breakpoint in force for the given installment, or -1 when the installment
+     * precedes the first breakpoint.
+     */
+    public int indexFor(int installmentNumber) {
+        int pos = Arrays.binarySearch(fromInstallment, installmentNumber);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    public double rateAt(int installmentNumber) {
+        int index = indexFor(installmentNumber);
+        return index < 0 ? 0.0 : annualRate[index];
+    }
+
+    /**
+     * Returns a copy of this table where every installment from {@code installmentNumber}
+     * onwards uses {@code rate}.
+     */
+    public RateTable withRateFrom(int installmentNumber, double rate) {
+        int keep = indexFor(installmentNumber - 1) + 1;
+        int[] from = Arrays.copyOf(fromInstallment, keep + 1);
+        double[] rates = Arrays.copyOf(annualRate, keep + 1);
+        from[keep] = installmentNumber;
+        rates[keep] = rate;
+        return new RateTable(from, rates);
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.loanms.schedule.engine;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Normalizes stepped rates as they arrive in loan requests into the breakpoint form that is stored:
+ * one entry per rate change, keyed by the installment it starts at.
+ */
+public final class StepRates {
+
+    private StepRates() {
+    }
+
+    /**
+     * Keys below 1 apply from the first installment, keys beyond the tenure are dropped and
+     * consecutive equal rates collapse. Installments before the first key still carry a rate of 0.
+     */
+    public static SortedMap<Integer, Double> normalize(Map<Integer, Double> steps, int tenureMonths) {
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("Stepped rates cannot be empty");
+        }
+        TreeMap<Integer, Double> clamped = new TreeMap<>();
+        steps.entrySet().stream()
+                .filter(step -> step.getKey() != null && step.getKey() <= tenureMonths)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(step -> {
+                    if (step.getValue() == null) {
+                        throw new IllegalArgumentException("Stepped rates cannot contain null entries");
+                    }
+                    clamped.put(Math.max(step.getKey(), 1), step.getValue());
+                });
+        if (clamped.isEmpty()) {
+            throw new IllegalArgumentException("Stepped rates must start within the loan tenure");
+        }
+
+        RateTable table = RateTable.fromSteps(clamped);
+        TreeMap<Integer, Double> breakpoints = new TreeMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            breakpoints.put(table.fromInstallment(i), table.annualRate(i));
+        }
+        return breakpoints;
+    }
+}
@@ -3,6 +3,7 @@ package com.finance.loanms.service;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.request.ChargeRequest;
 import com.finance.loanms.dto.response.ChargeResponse;
+import com.finance.loanms.model.entity.LoanAccount;
 
 public interface ChargeService {
 
@@ -11,4 +12,10 @@ public interface ChargeService {
     ApiResponse<ChargeResponse.ChargeListResponse> getChargesByLoan(Long loanId);
 
     ApiResponse<String> removeCharge(Long loanId, Long chargeId);
+
+    /**
+     * The loan's running {@link LoanAccount#getOutstandingCharges() outstanding charges}, summed from
+     * its charges once for loans that predate the field.
+     */
+    double outstandingCharges(LoanAccount loanAccount);
 }
@@ -0,0 +1,19 @@
+package com.finance.loanms.service;
+
+import com.finance.loanms.model.enumtype.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Streams extracts straight to the HTTP response. Rows are read through a forward-only cursor
+ * and written as they arrive, so memory use does not grow with the extract size.
+ */
+public interface ExportService {
+
+    void exportSchedule(Long loanId, ExportFormat format, HttpServletResponse response) throws IOException;
+
+    /** Repayments of every loan with a payment date in {@code [from, to]}, ordered by date. */
+    void exportRepayments(LocalDate from, LocalDate to, ExportFormat format, HttpServletResponse response) throws IOException;
+}
@@ -3,12 +3,17 @@ package com.finance.loanms.service;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.request.CreateLoanRequest;
 import com.finance.loanms.dto.request.ForecloseLoanRequest;
+import com.finance.loanms.dto.response.LoanBatchResponse;
 import com.finance.loanms.dto.response.LoanResponse;
 
+import java.util.List;
+
 public interface LoanAccountService {
 
     ApiResponse<LoanResponse> createLoan(CreateLoanRequest request);
 
+    ApiResponse<LoanBatchResponse> createLoans(List<CreateLoanRequest> requests);
+
     ApiResponse<LoanResponse> forecloseLoan(Long loanId, ForecloseLoanRequest request);
 
     ApiResponse<LoanResponse> getLoanById(Long loanId);
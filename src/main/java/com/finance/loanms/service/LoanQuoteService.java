@@ -0,0 +1,11 @@
+package com.finance.loanms.service;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.LoanQuoteRequest;
+import com.finance.loanms.dto.response.LoanQuoteResponse;
+
+public interface LoanQuoteService {
+
+    /** Prices every tenure/rate/type/method combination without persisting anything. */
+    ApiResponse<LoanQuoteResponse> quote(LoanQuoteRequest request);
+}
@@ -0,0 +1,16 @@
+package com.finance.loanms.service;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RateResetRequest;
+import com.finance.loanms.dto.response.RateResetJobResponse;
+
+public interface RateResetService {
+
+    /** Starts repricing every active FLOATING loan; the work runs in the background in loan-id chunks. */
+    ApiResponse<RateResetJobResponse> startReset(RateResetRequest request);
+
+    ApiResponse<RateResetJobResponse> getJob(Long jobId);
+
+    /** Re-runs the chunks of a job that did not complete. */
+    ApiResponse<RateResetJobResponse> resumeJob(Long jobId);
+}
@@ -0,0 +1,23 @@
+package com.finance.loanms.service;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.response.RepaymentIngestJobResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Posts bank settlement files of repayment lines ({@code loanId,amount,paymentDate,mode,transactionId})
+ * with the same rules as a single repayment. Files are processed in the background; re-submitting a
+ * file is safe because already-posted transaction IDs are reported as duplicates.
+ */
+public interface RepaymentIngestService {
+
+    ApiResponse<RepaymentIngestJobResponse> startIngest(MultipartFile file) throws IOException;
+
+    ApiResponse<RepaymentIngestJobResponse> getJob(Long jobId);
+
+    /** Streams the per-line result CSV of a finished job. */
+    void writeResults(Long jobId, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.finance.loanms.service;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RepaymentRequest;
+import com.finance.loanms.dto.response.RepaymentStatusResponse;
+
+public interface RepaymentQueueService {
+
+    ApiResponse<RepaymentStatusResponse> enqueue(Long loanId, RepaymentRequest request);
+
+    ApiResponse<RepaymentStatusResponse> getStatus(Long trackingId);
+}
@@ -5,9 +5,16 @@ import com.finance.loanms.dto.request.RepaymentRequest;
 import com.finance.loanms.dto.response.RepaymentHistoryResponse;
 import com.finance.loanms.dto.response.RepaymentResponse;
 
+import java.time.LocalDate;
+
 public interface RepaymentService {
 
     ApiResponse<RepaymentResponse> applyRepayment(Long loanId, RepaymentRequest request);
 
-    ApiResponse<RepaymentHistoryResponse> getRepaymentHistory(Long loanId);
+    /**
+     * One page of the loan's repayments ordered by payment date. {@code cursor} is the {@code nextCursor}
+     * of the previous page, or null for the first; {@code from}/{@code to} are optional.
+     */
+    ApiResponse<RepaymentHistoryResponse> getRepaymentHistory(Long loanId, LocalDate from, LocalDate to,
+                                                              String cursor, int size);
 }
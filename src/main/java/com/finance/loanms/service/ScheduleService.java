@@ -2,8 +2,12 @@ package com.finance.loanms.service;
 
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.response.ScheduleResponse;
+import com.finance.loanms.model.entity.Installment;
 import com.finance.loanms.model.entity.LoanAccount;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface ScheduleService {
 
     void generateSchedule(LoanAccount loanAccount);
@@ -11,5 +15,25 @@ public interface ScheduleService {
     ApiResponse<ScheduleResponse> getSchedule(Long loanId);
 
     ApiResponse<ScheduleResponse> updateScheduleAfterRateChange(Long loanId, double newRate, int effectiveFromInstallment);
+
+    /**
+     * Full installment list ordered by number. For virtual schedules, installments that were never
+     * stored are derived from the loan terms and returned as unsaved entities.
+     */
+    List<Installment> getInstallments(LoanAccount loanAccount);
+
+    /**
+     * Installments {@code fromNumber} to {@code fromNumber + count - 1} (capped at the tenure), ordered by number.
+     * Virtual schedules fill the gaps with derived, unsaved installments.
+     */
+    List<Installment> getInstallments(LoanAccount loanAccount, int fromNumber, int count);
+
+    boolean hasUnpaidInstallments(LoanAccount loanAccount);
+
+    /**
+     * Lowest-numbered installment that is not fully paid, looked up by the loan's next-due pointer.
+     * For virtual schedules it may be a derived, unsaved installment.
+     */
+    Optional<Installment> getNextDueInstallment(LoanAccount loanAccount);
 }
 
@@ -1,5 +1,6 @@
 package com.finance.loanms.service.impl;
 
+import com.finance.loanms.concurrency.LoanWrite;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.request.ChargeRequest;
 import com.finance.loanms.dto.response.ChargeResponse;
@@ -27,6 +28,7 @@ public class ChargeServiceImpl implements ChargeService {
     }
 
     @Override
+    @LoanWrite
     @Transactional
     public ApiResponse<ChargeResponse> addCharge(Long loanId, ChargeRequest request) {
         try {
@@ -51,6 +53,8 @@ public class ChargeServiceImpl implements ChargeService {
                     .loanAccount(loanAccount)
                     .build();
 
+            // Before the insert, so a total first summed from the table does not count this charge twice
+            adjustOutstanding(loanAccount, request.getAmount());
             Charge savedCharge = chargeRepository.save(charge);
 
             ChargeResponse response = ChargeResponse.builder()
@@ -100,6 +104,7 @@ public class ChargeServiceImpl implements ChargeService {
                     .loanAccountId(loanId)
                     .charges(chargeDetails)
                     .totalCharges(totalCharges)
+                    .outstandingCharges(outstandingCharges(loanAccount))
                     .build();
 
             return ApiResponse.ok("Charges retrieved successfully", response);
@@ -111,6 +116,7 @@ public class ChargeServiceImpl implements ChargeService {
     }
 
     @Override
+    @LoanWrite
     @Transactional
     public ApiResponse<String> removeCharge(Long loanId, Long chargeId) {
         try {
@@ -121,7 +127,7 @@ public class ChargeServiceImpl implements ChargeService {
                 throw new IllegalArgumentException("Invalid charge ID");
             }
 
-            loanAccountRepository.findById(loanId)
+            LoanAccount loanAccount = loanAccountRepository.findById(loanId)
                     .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
 
             Charge charge = chargeRepository.findById(chargeId)
@@ -131,6 +137,9 @@ public class ChargeServiceImpl implements ChargeService {
                 throw new IllegalStateException("Charge does not belong to the specified loan");
             }
 
+            if (!charge.isPaid()) {
+                adjustOutstanding(loanAccount, -(charge.getAmount() - charge.getPaidAmount()));
+            }
             chargeRepository.delete(charge);
 
             return ApiResponse.ok("Charge removed successfully", "Charge with ID " + chargeId + " has been removed");
@@ -140,4 +149,19 @@ public class ChargeServiceImpl implements ChargeService {
             throw new RuntimeException("Failed to remove charge: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public double outstandingCharges(LoanAccount loanAccount) {
+        if (loanAccount.getOutstandingCharges() == null) {
+            loanAccount.setOutstandingCharges(chargeRepository.sumOutstanding(loanAccount.getId()));
+        }
+        return loanAccount.getOutstandingCharges();
+    }
+
+    // Kept in cents so repeated adds and removals do not drift
+    private void adjustOutstanding(LoanAccount loanAccount, double delta) {
+        long cents = Math.round(outstandingCharges(loanAccount) * 100) + Math.round(delta * 100);
+        loanAccount.setOutstandingCharges(cents / 100.0);
+        loanAccountRepository.save(loanAccount);
+    }
 }
@@ -80,6 +80,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<CustomerResponse> getCustomerById(Long customerId) {
         try {
             if (customerId == null || customerId <= 0) {
@@ -99,6 +100,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<CustomerResponse> getCustomerByCustomerId(String customerId) {
         try {
             if (customerId == null || customerId.trim().isEmpty()) {
@@ -184,6 +186,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ApiResponse<Page<CustomerResponse>> getAllCustomers(Pageable pageable) {
         try {
             if (pageable == null) {
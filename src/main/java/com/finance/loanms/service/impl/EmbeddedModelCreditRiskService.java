@@ -0,0 +1,118 @@
+package com.finance.loanms.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.risk.forest.CreditFeatures;
+import com.finance.loanms.risk.forest.ForestModel;
+import com.finance.loanms.service.CreditRiskService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores applications in-process with the forest exported by {@code ml-service/train_model.py}, giving the
+ * same answer as the Python service's {@code /predict} without the network hop.
+ * <p>
+ * The model is loaded at startup and the file is polled for changes; a new version is parsed off to the
+ * side and swapped in atomically, and one that fails to parse leaves the current model in place. Built
+ * lazily, so neither the model nor the poller is loaded unless a configured engine uses it.
+ */
+@Slf4j
+@Service
+@Lazy
+public class EmbeddedModelCreditRiskService implements CreditRiskService {
+
+    private final Path modelPath;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService reloader;
+    private volatile ForestModel model;
+    // Modification time and size of the last file read, loaded or not
+    private String loadedVersion;
+
+    public EmbeddedModelCreditRiskService(ObjectMapper objectMapper,
+                                          @Value("${credit.risk.embedded.model-path:ml-service/credit_risk_model.json}") String modelPath,
+                                          @Value("${credit.risk.embedded.reload-interval-ms:5000}") long reloadIntervalMillis) {
+        this.objectMapper = objectMapper;
+        this.modelPath = Path.of(modelPath);
+        reloadIfChanged();
+        if (reloadIntervalMillis > 0) {
+            this.reloader = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("credit-model-reload").factory());
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMillis, reloadIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.reloader = null;
+        }
+    }
+
+    @Override
+    public RiskAssessment assessRisk(CreateLoanRequest request) {
+        ForestModel current = model;
+        if (current == null) {
+            throw new IllegalStateException("Embedded credit model is not loaded from " + modelPath);
+        }
+        double probability = current.approvalProbability(
+                CreditFeatures.number(request.getMonthlyIncome()),
+                CreditFeatures.number(request.getCreditScore()),
+                CreditFeatures.number(request.getPrincipal()),
+                CreditFeatures.number(request.getTenureMonths()),
+                CreditFeatures.number(request.getExistingDebt()),
+                CreditFeatures.employmentStatus(request.getEmploymentStatus()),
+                CreditFeatures.loanPurpose(request.getLoanPurpose()));
+        // predict() takes the likelier class and a tie goes to the first one, rejected
+        boolean approved = probability > 0.5;
+        return RiskAssessment.builder()
+                .isApproved(approved)
+                .riskScore(probability)
+                .reason(approved ? "Model prediction based on historical data" : "High risk detected by ML model")
+                .build();
+    }
+
+    public boolean isLoaded() {
+        return model != null;
+    }
+
+    synchronized void reloadIfChanged() {
+        try {
+            if (!Files.isRegularFile(modelPath)) {
+                if (loadedVersion == null) {
+                    log.info("No embedded credit model at {}; it is picked up once it appears", modelPath.toAbsolutePath());
+                    loadedVersion = "";
+                }
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(modelPath, BasicFileAttributes.class);
+            String version = attributes.lastModifiedTime() + "/" + attributes.size();
+            if (version.equals(loadedVersion)) {
+                return;
+            }
+            loadedVersion = version;
+            ForestModel loaded;
+            try (InputStream in = Files.newInputStream(modelPath)) {
+                loaded = ForestModel.read(in, objectMapper);
+            }
+            model = loaded;
+            log.info("Loaded embedded credit model from {}: {} trees, {} nodes", modelPath, loaded.treeCount(), loaded.nodeCount());
+        } catch (Exception e) {
+            log.error("Could not load embedded credit model from {}; keeping the previous one", modelPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+}
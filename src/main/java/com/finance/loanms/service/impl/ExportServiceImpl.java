@@ -0,0 +1,162 @@
+package com.finance.loanms.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.dto.response.InstallmentExportRow;
+import com.finance.loanms.dto.response.RepaymentExportRow;
+import com.finance.loanms.exception.ResourceNotFoundException;
+import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.model.enumtype.ExportFormat;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.repository.InstallmentRepository;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.repository.RepaymentRepository;
+import com.finance.loanms.service.ExportService;
+import com.finance.loanms.service.ScheduleService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String[] SCHEDULE_HEADER = {"loanId", "installmentNumber", "dueDate",
+            "principalComponent", "interestComponent", "totalAmount", "status"};
+    private static final String[] REPAYMENT_HEADER = {"repaymentId", "loanId", "installmentNumber",
+            "amount", "paymentDate", "mode", "transactionId"};
+
+    private final LoanAccountRepository loanAccountRepository;
+    private final InstallmentRepository installmentRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final ScheduleService scheduleService;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(LoanAccountRepository loanAccountRepository, InstallmentRepository installmentRepository,
+                             RepaymentRepository repaymentRepository, ScheduleService scheduleService,
+                             ObjectMapper objectMapper) {
+        this.loanAccountRepository = loanAccountRepository;
+        this.installmentRepository = installmentRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.scheduleService = scheduleService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSchedule(Long loanId, ExportFormat format, HttpServletResponse response) throws IOException {
+        LoanAccount loanAccount = loanAccountRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
+
+        prepare(response, format, "schedule-" + loanId);
+        if (loanAccount.getScheduleStorage() == ScheduleStorage.VIRTUAL) {
+            // Bounded by the tenure; most rows are derived rather than stored
+            Stream<InstallmentExportRow> rows = scheduleService.getInstallments(loanAccount).stream()
+                    .map(installment -> new InstallmentExportRow(loanId, installment.getInstallmentNumber(),
+                            installment.getDueDate(), installment.getPrincipalComponent(),
+                            installment.getInterestComponent(), installment.getTotalAmount(), installment.getStatus()));
+            write(rows, format, SCHEDULE_HEADER, ExportServiceImpl::scheduleValues, response);
+            return;
+        }
+        try (Stream<InstallmentExportRow> rows = installmentRepository.streamExportRows(loanId)) {
+            write(rows, format, SCHEDULE_HEADER, ExportServiceImpl::scheduleValues, response);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRepayments(LocalDate from, LocalDate to, ExportFormat format, HttpServletResponse response)
+            throws IOException {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("A valid date range is required");
+        }
+
+        prepare(response, format, "repayments-" + from + "-" + to);
+        try (Stream<RepaymentExportRow> rows = repaymentRepository.streamExportRows(from, to)) {
+            write(rows, format, REPAYMENT_HEADER, ExportServiceImpl::repaymentValues, response);
+        }
+    }
+
+    private void prepare(HttpServletResponse response, ExportFormat format, String fileName) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+    }
+
+    private <T> void write(Stream<T> rows, ExportFormat format, String[] header, Function<T, Object[]> values,
+                           HttpServletResponse response) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        Iterator<T> iterator = rows.iterator();
+        if (format == ExportFormat.NDJSON) {
+            writeNdjson(iterator, writer);
+        } else {
+            writeCsv(iterator, header, values, writer);
+        }
+        writer.flush();
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        boolean any = false;
+        while (rows.hasNext()) {
+            objectMapper.writeValue(generator, rows.next());
+            any = true;
+        }
+        generator.flush();
+        if (any) {
+            writer.write('\n');
+        }
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, String[] header, Function<T, Object[]> values, Writer writer)
+            throws IOException {
+        writeCsvLine(header, writer);
+        while (rows.hasNext()) {
+            writeCsvLine(values.apply(rows.next()), writer);
+        }
+    }
+
+    private void writeCsvLine(Object[] values, Writer writer) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static Object[] scheduleValues(InstallmentExportRow row) {
+        return new Object[]{row.loanId(), row.installmentNumber(), row.dueDate(), row.principalComponent(),
+                row.interestComponent(), row.totalAmount(), row.status()};
+    }
+
+    private static Object[] repaymentValues(RepaymentExportRow row) {
+        return new Object[]{row.repaymentId(), row.loanId(), row.installmentNumber(), row.amount(),
+                row.paymentDate(), row.mode(), row.transactionId()};
+    }
+}
@@ -1,31 +1,54 @@
 package com.finance.loanms.service.impl;
 
+import com.finance.loanms.concurrency.LoanWrite;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.request.CreateLoanRequest;
 import com.finance.loanms.dto.request.ForecloseLoanRequest;
+import com.finance.loanms.dto.response.LoanBatchResponse;
 import com.finance.loanms.dto.response.LoanResponse;
 import com.finance.loanms.exception.ResourceNotFoundException;
 import com.finance.loanms.model.entity.Customer;
 import com.finance.loanms.model.entity.InterestRate;
 import com.finance.loanms.model.entity.LoanAccount;
-import com.finance.loanms.model.enumtype.InstallmentStatus;
 import com.finance.loanms.model.enumtype.InterestType;
 import com.finance.loanms.model.enumtype.LoanStatus;
-import com.finance.loanms.repository.ChargeRepository;
+import com.finance.loanms.model.payload.RiskAssessment;
 import com.finance.loanms.repository.CustomerRepository;
 import com.finance.loanms.repository.InstallmentRepository;
 import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.risk.HedgedCreditRiskService;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.schedule.engine.StepRates;
+import com.finance.loanms.service.ChargeService;
 import com.finance.loanms.service.CreditRiskService;
 import com.finance.loanms.service.LoanAccountService;
 import com.finance.loanms.service.ScheduleService;
 import com.finance.loanms.exception.LoanRejectionException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
 @Service
 public class LoanAccountServiceImpl implements LoanAccountService {
@@ -34,80 +57,79 @@ public class LoanAccountServiceImpl implements LoanAccountService {
     private final LoanAccountRepository loanAccountRepository;
     private final ScheduleService scheduleService;
     private final InstallmentRepository installmentRepository;
-    private final ChargeRepository chargeRepository;
+    private final ChargeService chargeService;
     private final CreditRiskService creditRiskService;
+    private final ScheduleResponseCache scheduleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchMaxSize;
+    private final int batchChunkSize;
+    private final int batchScoringConcurrency;
 
     public LoanAccountServiceImpl(CustomerRepository customerRepository,
             LoanAccountRepository loanAccountRepository,
             ScheduleService scheduleService, InstallmentRepository installmentRepository,
-            ChargeRepository chargeRepository, CreditRiskService creditRiskService) {
+            ChargeService chargeService, CreditRiskService creditRiskService,
+            ScheduleResponseCache scheduleCache, PlatformTransactionManager transactionManager, Validator validator,
+            @Value("${loan.batch.max-size:5000}") int batchMaxSize,
+            @Value("${loan.batch.chunk-size:100}") int batchChunkSize,
+            @Value("${loan.batch.scoring-concurrency:32}") int batchScoringConcurrency) {
         this.customerRepository = customerRepository;
         this.loanAccountRepository = loanAccountRepository;
         this.scheduleService = scheduleService;
         this.installmentRepository = installmentRepository;
-        this.chargeRepository = chargeRepository;
+        this.chargeService = chargeService;
         this.creditRiskService = creditRiskService;
+        this.scheduleCache = scheduleCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchMaxSize = batchMaxSize;
+        this.batchChunkSize = batchChunkSize;
+        this.batchScoringConcurrency = batchScoringConcurrency;
     }
 
-    @Transactional
+    /**
+     * Validation and credit-risk scoring run before any transaction is opened, so a slow risk service
+     * never holds a pooled connection; only the loan and its schedule are written transactionally.
+     */
     @Override
     public ApiResponse<LoanResponse> createLoan(CreateLoanRequest request) {
         try {
-            // 1. Validate customer
-            Customer customer = customerRepository.findById(request.getCustomerId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Customer not found with ID: " + request.getCustomerId()));
-
-            // 2. Assess Credit Risk
-            var riskAssessment = creditRiskService.assessRisk(request);
-            if (!riskAssessment.isApproved()) {
-                throw new LoanRejectionException(riskAssessment);
-            }
-
+            // 1. Validate request and customer
             if ((request.getInterestType() == InterestType.FIXED ||
                     request.getInterestType() == InterestType.FLOATING)
                     && request.getInterestRate() == null) {
                 throw new IllegalArgumentException(
                         "Interest rate is required for " + request.getInterestType() + " interest type");
             }
+            if (request.getInterestType() == InterestType.STEP
+                    && (request.getSteppedRates() == null || request.getSteppedRates().isEmpty())) {
+                return ApiResponse.fail("Stepped rates are required for STEP interest type");
+            }
+            if (!customerRepository.existsById(request.getCustomerId())) {
+                throw new ResourceNotFoundException("Customer not found with ID: " + request.getCustomerId());
+            }
 
-            // 3. Prepare InterestRate object based on type
-            InterestRate interestRate = InterestRate.builder()
-                    .type(request.getInterestType())
-                    .baseRate(request.getInterestRate() != null ? request.getInterestRate() : 0.0)
-                    .steppedRates(request.getSteppedRates() != null ? request.getSteppedRates() : new HashMap<>())
-                    .build();
-
-            // STEP: Normalize steppedRates if InterestType is STEP
-            if (request.getInterestType() == InterestType.STEP) {
-                if (request.getSteppedRates() == null || request.getSteppedRates().isEmpty()) {
-                    return ApiResponse.fail("Stepped rates are required for STEP interest type");
-                }
-                Map<Integer, Double> normalizedMap = normalizeSteppedRates(request.getSteppedRates(),
-                        request.getTenureMonths());
-                interestRate.setSteppedRates(normalizedMap);
+            // 2. Assess Credit Risk (outside the transaction)
+            var riskAssessment = creditRiskService.assessRisk(request);
+            if (!riskAssessment.isApproved()) {
+                throw new LoanRejectionException(riskAssessment);
             }
 
-            // 4. Create and persist LoanAccount
-            LoanAccount loanAccount = LoanAccount.builder()
-                    .loanId(UUID.randomUUID().toString())
-                    .customer(customer)
-                    .principal(request.getPrincipal())
-                    .interestRate(interestRate)
-                    .tenureMonths(request.getTenureMonths())
-                    .startDate(LocalDate.now())
-                    .status(LoanStatus.ACTIVE)
-                    .riskScore(riskAssessment.getRiskScore())
-                    .riskReason(riskAssessment.getReason())
-                    .isApproved(riskAssessment.isApproved())
-                    .build();
+            // 3. Create and persist LoanAccount with its schedule
+            LoanAccount loanAccount = transactionTemplate.execute(status -> {
+                Customer customer = customerRepository.findById(request.getCustomerId())
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "Customer not found with ID: " + request.getCustomerId()));
 
-            loanAccount = loanAccountRepository.save(loanAccount);
+                LoanAccount created = loanAccountRepository.save(newLoanAccount(request, customer, riskAssessment));
 
-            // 5. Generate schedule
-            scheduleService.generateSchedule(loanAccount);
+                // 4. Generate schedule
+                scheduleService.generateSchedule(created);
+                return created;
+            });
 
-            // 6. Return mapped response
+            // 5. Return mapped response
             LoanResponse response = LoanResponse.fromEntity(loanAccount);
             return ApiResponse.ok("Loan created successfully", response);
 
@@ -118,6 +140,7 @@ public class LoanAccountServiceImpl implements LoanAccountService {
         }
     }
 
+    @LoanWrite
     @Transactional
     public ApiResponse<LoanResponse> forecloseLoan(Long loanId, ForecloseLoanRequest request) {
         try {
@@ -126,21 +149,20 @@ public class LoanAccountServiceImpl implements LoanAccountService {
                     .orElseThrow(() -> new ResourceNotFoundException("Active loan not found with ID: " + loanId));
 
             // 2. Check if any unpaid installments exist
-            boolean hasDueInstallments = installmentRepository.existsByLoanAccountIdAndStatus(loanId,
-                    InstallmentStatus.DUE);
+            boolean hasDueInstallments = scheduleService.hasUnpaidInstallments(loanAccount);
             if (hasDueInstallments) {
                 throw new IllegalStateException("Loan cannot be foreclosed — unpaid installments exist");
             }
 
             // 3. Check if any charges exist
-            boolean hasCharges = chargeRepository.existsByLoanAccountIdAndIsPaidFalse(loanId);
-            if (hasCharges) {
+            if (chargeService.outstandingCharges(loanAccount) > 0) {
                 throw new IllegalStateException("Loan cannot be foreclosed — outstanding charges exist");
             }
 
             // 4. Mark loan as FORECLOSED and save
             loanAccount.setStatus(LoanStatus.FORECLOSED);
             loanAccount = loanAccountRepository.save(loanAccount);
+            scheduleCache.evict(loanId);
 
             LoanResponse response = LoanResponse.fromEntity(loanAccount);
             return ApiResponse.ok("Loan foreclosed successfully", response);
@@ -167,22 +189,205 @@ public class LoanAccountServiceImpl implements LoanAccountService {
         }
     }
 
-    private Map<Integer, Double> normalizeSteppedRates(Map<Integer, Double> inputSteps, int tenureMonths) {
-        Map<Integer, Double> expanded = new HashMap<>();
-        var sortedKeys = inputSteps.keySet().stream().sorted().toList();
+    /**
+     * Originates many loans at once. Applications are validated up front and their customers checked with a
+     * single query; the valid ones are scored concurrently on virtual threads (the ML client merges concurrent
+     * calls into batch requests), and the approved ones are written in chunked transactions so inserts go out
+     * in JDBC batches. A chunk that fails is replayed loan by loan so only the offending loans fail.
+     * Every application gets a result, in request order.
+     */
+    @Override
+    public ApiResponse<LoanBatchResponse> createLoans(List<CreateLoanRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one loan application is required");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new IllegalArgumentException("At most " + batchMaxSize + " loan applications are accepted per batch");
+        }
+        try {
+            int size = requests.size();
+            LoanBatchResponse.Item[] results = new LoanBatchResponse.Item[size];
+
+            // 1. Validate every application, then load all their customers in one query
+            for (int i = 0; i < size; i++) {
+                String error = validationError(requests.get(i));
+                if (error != null) {
+                    results[i] = LoanBatchResponse.Item.rejected(i, requests.get(i), null, error);
+                }
+            }
+            Set<Long> customerIds = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                if (results[i] == null) {
+                    customerIds.add(requests.get(i).getCustomerId());
+                }
+            }
+            Map<Long, Customer> customers = new HashMap<>();
+            customerRepository.findAllById(customerIds).forEach(customer -> customers.put(customer.getId(), customer));
+            for (int i = 0; i < size; i++) {
+                if (results[i] == null && !customers.containsKey(requests.get(i).getCustomerId())) {
+                    results[i] = LoanBatchResponse.Item.rejected(i, requests.get(i), null,
+                            "Customer not found with ID: " + requests.get(i).getCustomerId());
+                }
+            }
+
+            // 2. Score what is left concurrently, outside any transaction
+            RiskAssessment[] assessments = scoreAll(requests, results);
+            List<Integer> approved = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                if (!isDecision(assessments[i])) {
+                    // The scorer could not answer; resubmitting later may get the application scored
+                    results[i] = LoanBatchResponse.Item.failed(i, requests.get(i), "Failed to assess credit risk: "
+                            + (assessments[i] == null ? "no assessment returned" : assessments[i].getReason()));
+                    continue;
+                }
+                if (assessments[i].isApproved()) {
+                    approved.add(i);
+                } else {
+                    results[i] = LoanBatchResponse.Item.rejected(i, requests.get(i), assessments[i].getRiskScore(),
+                            "Loan rejected: " + assessments[i].getReason());
+                }
+            }
+
+            // 3. Write the approved loans and their schedules a chunk per transaction
+            for (int from = 0; from < approved.size(); from += batchChunkSize) {
+                List<Integer> chunk = approved.subList(from, Math.min(from + batchChunkSize, approved.size()));
+                try {
+                    List<LoanAccount> created = transactionTemplate.execute(status -> {
+                        List<LoanAccount> loans = new ArrayList<>(chunk.size());
+                        for (int i : chunk) {
+                            loans.add(newLoanAccount(requests.get(i), customers.get(requests.get(i).getCustomerId()), assessments[i]));
+                        }
+                        loanAccountRepository.saveAll(loans);
+                        loans.forEach(scheduleService::generateSchedule);
+                        return loans;
+                    });
+                    for (int k = 0; k < chunk.size(); k++) {
+                        results[chunk.get(k)] = LoanBatchResponse.Item.created(chunk.get(k), created.get(k));
+                    }
+                } catch (RuntimeException chunkFailure) {
+                    for (int i : chunk) {
+                        results[i] = createOne(i, requests.get(i), customers.get(requests.get(i).getCustomerId()), assessments[i]);
+                    }
+                }
+            }
+
+            List<LoanBatchResponse.Item> items = Arrays.asList(results);
+            return ApiResponse.ok("Processed " + size + " loan applications", LoanBatchResponse.of(items));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to create loans: interrupted", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create loans: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the assessment is a real approve/decline. A fallback stands in for a scorer that could not
+     * answer, except the hedged scorer's rule-based backup, which decides on the application itself.
+     */
+    private static boolean isDecision(RiskAssessment assessment) {
+        return assessment != null
+                && (!assessment.isFallback() || HedgedCreditRiskService.BACKUP_SOURCE.equals(assessment.getSource()));
+    }
+
+    private String validationError(CreateLoanRequest request) {
+        if (request == null) {
+            return "Loan application cannot be null";
+        }
+        Set<ConstraintViolation<CreateLoanRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        if ((request.getInterestType() == InterestType.FIXED || request.getInterestType() == InterestType.FLOATING)
+                && request.getInterestRate() == null) {
+            return "Interest rate is required for " + request.getInterestType() + " interest type";
+        }
+        if (request.getInterestType() == InterestType.STEP
+                && (request.getSteppedRates() == null || request.getSteppedRates().isEmpty())) {
+            return "Stepped rates are required for STEP interest type";
+        }
+        return null;
+    }
 
-        for (int i = 1; i <= tenureMonths; i++) {
-            double currentRate = 0;
-            for (int j = sortedKeys.size() - 1; j >= 0; j--) {
-                if (i >= sortedKeys.get(j)) {
-                    currentRate = inputSteps.get(sortedKeys.get(j));
-                    break;
+    /** Scores every application without a result yet; one that cannot be scored gets a FAILED result. */
+    private RiskAssessment[] scoreAll(List<CreateLoanRequest> requests, LoanBatchResponse.Item[] results)
+            throws InterruptedException {
+        RiskAssessment[] assessments = new RiskAssessment[requests.size()];
+        Semaphore permits = new Semaphore(batchScoringConcurrency);
+        List<Future<RiskAssessment>> futures = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests.size(); i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                CreateLoanRequest request = requests.get(i);
+                futures.set(i, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return creditRiskService.assessRisk(request);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                if (futures.get(i) == null) {
+                    continue;
+                }
+                try {
+                    assessments[i] = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    results[i] = LoanBatchResponse.Item.failed(i, requests.get(i),
+                            "Failed to assess credit risk: " + e.getCause().getMessage());
                 }
             }
-            expanded.put(i, currentRate);
         }
+        return assessments;
+    }
 
-        return expanded;
+    private LoanBatchResponse.Item createOne(int index, CreateLoanRequest request, Customer customer,
+                                             RiskAssessment riskAssessment) {
+        try {
+            LoanAccount created = transactionTemplate.execute(status -> {
+                LoanAccount loan = loanAccountRepository.save(newLoanAccount(request, customer, riskAssessment));
+                scheduleService.generateSchedule(loan);
+                return loan;
+            });
+            return LoanBatchResponse.Item.created(index, created);
+        } catch (RuntimeException e) {
+            return LoanBatchResponse.Item.failed(index, request, e.getMessage());
+        }
     }
 
+    private static LoanAccount newLoanAccount(CreateLoanRequest request, Customer customer, RiskAssessment riskAssessment) {
+        InterestRate interestRate = InterestRate.builder()
+                .type(request.getInterestType())
+                .baseRate(request.getInterestRate() != null ? request.getInterestRate() : 0.0)
+                .steppedRates(request.getSteppedRates() != null ? new TreeMap<>(request.getSteppedRates()) : new TreeMap<>())
+                .build();
+
+        // STEP: Normalize steppedRates if InterestType is STEP
+        if (request.getInterestType() == InterestType.STEP) {
+            interestRate.setSteppedRates(StepRates.normalize(request.getSteppedRates(), request.getTenureMonths()));
+        }
+
+        return LoanAccount.builder()
+                .loanId(UUID.randomUUID().toString())
+                .customer(customer)
+                .principal(request.getPrincipal())
+                .interestRate(interestRate)
+                .tenureMonths(request.getTenureMonths())
+                .startDate(LocalDate.now())
+                .status(LoanStatus.ACTIVE)
+                .outstandingCharges(0.0)
+                .riskScore(riskAssessment.getRiskScore())
+                .riskReason(riskAssessment.getReason())
+                .isApproved(riskAssessment.isApproved())
+                .build();
+    }
 }
@@ -0,0 +1,137 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.LoanQuoteRequest;
+import com.finance.loanms.dto.response.LoanQuoteResponse;
+import com.finance.loanms.dto.response.ScheduleResponse;
+import com.finance.loanms.model.enumtype.InstallmentStatus;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.schedule.engine.AmortizationEngine;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.schedule.engine.AmortizationSchedule;
+import com.finance.loanms.schedule.engine.RateTable;
+import com.finance.loanms.schedule.engine.StepRates;
+import com.finance.loanms.service.LoanQuoteService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Service
+public class LoanQuoteServiceImpl implements LoanQuoteService {
+
+    // Grids larger than this are split across the common pool
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private final AmortizationMethod defaultMethod;
+    private final int maxCombinations;
+    private final int maxTenureMonths;
+
+    public LoanQuoteServiceImpl(@Value("${schedule.amortization.method:FLAT}") AmortizationMethod defaultMethod,
+                                @Value("${loan.quote.max-combinations:1000}") int maxCombinations,
+                                @Value("${loan.quote.max-tenure-months:600}") int maxTenureMonths) {
+        this.defaultMethod = defaultMethod;
+        this.maxCombinations = maxCombinations;
+        this.maxTenureMonths = maxTenureMonths;
+    }
+
+    @Override
+    public ApiResponse<LoanQuoteResponse> quote(LoanQuoteRequest request) {
+        try {
+            if (request == null) {
+                throw new IllegalArgumentException("Quote request cannot be null");
+            }
+            List<Combination> combinations = combinations(request);
+            double principal = request.principal();
+            LocalDate startDate = LocalDate.now();
+
+            // Each combination is independent and the engine is stateless, so the grid parallelizes freely
+            IntStream indexes = IntStream.range(0, combinations.size());
+            if (combinations.size() > PARALLEL_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            List<LoanQuoteResponse.Quote> quotes = indexes
+                    .mapToObj(i -> price(combinations.get(i), principal, startDate, request.includeSchedule()))
+                    .toList();
+
+            return ApiResponse.ok("Quotes calculated successfully", new LoanQuoteResponse(principal, quotes));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to calculate quotes: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Combination> combinations(LoanQuoteRequest request) {
+        List<InterestType> types = request.interestTypes() == null || request.interestTypes().isEmpty()
+                ? List.of(InterestType.FIXED) : request.interestTypes();
+        List<AmortizationMethod> methods = request.methods() == null || request.methods().isEmpty()
+                ? List.of(defaultMethod) : request.methods();
+        List<Double> rates = request.rates() == null ? List.of() : request.rates();
+
+        // Size the grid before building it so an oversized request is rejected without allocating it
+        long stepTypes = types.stream().filter(type -> type == InterestType.STEP).count();
+        long perTenure = (stepTypes + (types.size() - stepTypes) * rates.size()) * methods.size();
+        if ((long) request.tenures().size() * perTenure > maxCombinations) {
+            throw new IllegalArgumentException("A quote grid cannot exceed " + maxCombinations + " combinations");
+        }
+
+        List<Combination> combinations = new ArrayList<>();
+        for (Integer tenure : request.tenures()) {
+            if (tenure > maxTenureMonths) {
+                throw new IllegalArgumentException("Tenure cannot exceed " + maxTenureMonths + " months");
+            }
+            for (InterestType type : types) {
+                if (type == InterestType.STEP) {
+                    if (request.steppedRates() == null || request.steppedRates().isEmpty()) {
+                        throw new IllegalArgumentException("Stepped rates are required for STEP interest type");
+                    }
+                    RateTable steps = RateTable.fromSteps(StepRates.normalize(request.steppedRates(), tenure));
+                    for (AmortizationMethod method : methods) {
+                        combinations.add(new Combination(tenure, null, type, method, steps));
+                    }
+                    continue;
+                }
+                if (rates.isEmpty()) {
+                    throw new IllegalArgumentException("Interest rates are required for " + type + " interest type");
+                }
+                for (Double rate : rates) {
+                    for (AmortizationMethod method : methods) {
+                        combinations.add(new Combination(tenure, rate, type, method, RateTable.flat(rate)));
+                    }
+                }
+            }
+        }
+        return combinations;
+    }
+
+    private LoanQuoteResponse.Quote price(Combination combination, double principal, LocalDate startDate,
+                                          boolean includeSchedule) {
+        AmortizationSchedule schedule = AmortizationEngine.compute(combination.method(), principal,
+                combination.tenure(), combination.rates(), startDate);
+
+        List<ScheduleResponse.InstallmentEntry> entries = null;
+        if (includeSchedule) {
+            entries = new ArrayList<>(schedule.size());
+            for (int i = 1; i <= schedule.size(); i++) {
+                entries.add(new ScheduleResponse.InstallmentEntry(i, schedule.dueDate(i), schedule.principalComponent(i),
+                        schedule.interestComponent(i), schedule.totalAmount(i), InstallmentStatus.DUE.toString()));
+            }
+        }
+        return new LoanQuoteResponse.Quote(
+                combination.tenure(),
+                combination.rate(),
+                combination.type().name(),
+                combination.method().name(),
+                schedule.totalAmount(1),
+                schedule.totalInterest(),
+                schedule.totalPayable(),
+                entries);
+    }
+
+    private record Combination(int tenure, Double rate, InterestType type, AmortizationMethod method, RateTable rates) {
+    }
+}
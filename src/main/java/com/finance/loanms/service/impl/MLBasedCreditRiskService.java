@@ -3,32 +3,90 @@ package com.finance.loanms.service.impl;
 import com.finance.loanms.dto.request.CreateLoanRequest;
 import com.finance.loanms.model.payload.RiskAssessment;
 import com.finance.loanms.service.CreditRiskService;
+import com.finance.loanms.util.MicroBatcher;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Scores applications with the Python ML service. With batching on, concurrent calls are collected by a
+ * {@link MicroBatcher} and scored with one {@code /predict/batch} request; each caller still sees a
+ * single call, so the circuit breaker and its fallback apply per application.
+ * <p>
+ * Every HTTP call goes through the {@code mlService} bulkhead, which caps calls in flight, and is timed
+ * as {@code ml.scoring.requests} tagged with the endpoint and outcome (success, error or rejected by the bulkhead).
+ * Built lazily, so the batch collector thread only starts when a configured engine scores through it.
+ */
 @Service
+@Lazy
 @Slf4j
 public class MLBasedCreditRiskService implements CreditRiskService {
 
-    private final RestTemplate restTemplate;
-
-    @Value("${ml.service.url}")
-    private String mlServiceUrl;
-
     private static final String SERVICE_NAME = "mlService";
 
-    public MLBasedCreditRiskService() {
-        this.restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+    private final String mlServiceUrl;
+    private final String batchUrl;
+    private final long maxWaitMillis;
+    private final MicroBatcher<CreateLoanRequest, RiskAssessment> batcher;
+
+    public MLBasedCreditRiskService(@Qualifier("mlRestTemplate") RestTemplate restTemplate,
+                                    BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+                                    @Value("${ml.service.url}") String mlServiceUrl,
+                                    @Value("${ml.service.batch-url:${ml.service.url}/batch}") String batchUrl,
+                                    @Value("${ml.batch.enabled:true}") boolean batchEnabled,
+                                    @Value("${ml.batch.max-size:32}") int maxBatchSize,
+                                    @Value("${ml.batch.window-ms:5}") long windowMillis,
+                                    @Value("${ml.batch.max-wait-ms:10000}") long maxWaitMillis) {
+        this.restTemplate = restTemplate;
+        this.bulkhead = bulkheadRegistry.bulkhead(SERVICE_NAME);
+        this.meterRegistry = meterRegistry;
+        this.mlServiceUrl = mlServiceUrl;
+        this.batchUrl = batchUrl;
+        this.maxWaitMillis = maxWaitMillis;
+        this.batcher = batchEnabled
+                ? new MicroBatcher<>(SERVICE_NAME, this::scoreBatch, maxBatchSize, windowMillis, maxBatchSize * 64)
+                : null;
     }
 
     @Override
     @CircuitBreaker(name = SERVICE_NAME, fallbackMethod = "fallbackRiskAssessment")
     public RiskAssessment assessRisk(CreateLoanRequest request) {
-        return restTemplate.postForObject(mlServiceUrl, request, RiskAssessment.class);
+        if (batcher == null) {
+            return call("predict", () -> restTemplate.postForObject(mlServiceUrl, request, RiskAssessment.class));
+        }
+        try {
+            return batcher.submit(request).get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to score application: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Failed to score application: no result within " + maxWaitMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to score application: interrupted", e);
+        }
     }
 
     public RiskAssessment fallbackRiskAssessment(CreateLoanRequest request, Throwable t) {
@@ -37,6 +95,39 @@ public class MLBasedCreditRiskService implements CreditRiskService {
                 .isApproved(false)
                 .riskScore(0.0)
                 .reason("Risk assessment service unavailable (Fallback)")
+                .fallback(true)
                 .build();
     }
+
+    private List<RiskAssessment> scoreBatch(List<CreateLoanRequest> requests) {
+        RiskAssessment[] results = call("batch", () -> restTemplate.postForObject(batchUrl, requests, RiskAssessment[].class));
+        return results == null ? List.of() : Arrays.asList(results);
+    }
+
+    private <T> T call(String endpoint, Supplier<T> http) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = bulkhead.executeSupplier(http);
+            outcome = "success";
+            return result;
+        } catch (BulkheadFullException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("ml.scoring.requests")
+                    .description("Calls to the ML scoring service")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
 }
@@ -0,0 +1,288 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RateResetRequest;
+import com.finance.loanms.dto.response.RateResetJobResponse;
+import com.finance.loanms.exception.ResourceNotFoundException;
+import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.model.entity.RateResetChunk;
+import com.finance.loanms.model.entity.RateResetJob;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.enumtype.LoanStatus;
+import com.finance.loanms.model.enumtype.RateResetStatus;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.repository.InstallmentRepository;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.repository.RateResetChunkRepository;
+import com.finance.loanms.repository.RateResetJobRepository;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.service.RateResetService;
+import com.finance.loanms.service.ScheduleService;
+import com.finance.loanms.util.WorkLease;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reprices the FLOATING book in loan-id chunks.
+ * <p>
+ * Flat, materialized loans are repriced with one set-based UPDATE per chunk; loans whose amounts
+ * depend on the outstanding balance or that have a virtual schedule go through the schedule service.
+ * Every step writes absolute values, so re-running a chunk after a crash is safe. A job runs on the node
+ * holding its {@link WorkLease}; other nodes resume it only once that lease has lapsed.
+ */
+@Slf4j
+@Service
+public class RateResetServiceImpl implements RateResetService {
+
+    private final RateResetJobRepository jobRepository;
+    private final RateResetChunkRepository chunkRepository;
+    private final LoanAccountRepository loanAccountRepository;
+    private final InstallmentRepository installmentRepository;
+    private final ScheduleService scheduleService;
+    private final ScheduleResponseCache scheduleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkLease workLease;
+    private final AmortizationMethod defaultMethod;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public RateResetServiceImpl(RateResetJobRepository jobRepository, RateResetChunkRepository chunkRepository,
+                                LoanAccountRepository loanAccountRepository, InstallmentRepository installmentRepository,
+                                ScheduleService scheduleService, ScheduleResponseCache scheduleCache,
+                                PlatformTransactionManager transactionManager, WorkLease workLease,
+                                @Value("${schedule.amortization.method:FLAT}") AmortizationMethod defaultMethod,
+                                @Value("${rate-reset.chunk-size:500}") int chunkSize,
+                                @Value("${rate-reset.worker-threads:4}") int workerThreads) {
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.loanAccountRepository = loanAccountRepository;
+        this.installmentRepository = installmentRepository;
+        this.scheduleService = scheduleService;
+        this.scheduleCache = scheduleCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workLease = workLease;
+        this.defaultMethod = defaultMethod;
+        this.chunkSize = chunkSize;
+        this.workers = Executors.newFixedThreadPool(workerThreads);
+        workLease.onRenew(until -> transactionTemplate.executeWithoutResult(status ->
+                jobRepository.renewLeases(workLease.nodeId(), RateResetStatus.RUNNING, until)));
+    }
+
+    @Override
+    public ApiResponse<RateResetJobResponse> startReset(RateResetRequest request) {
+        try {
+            if (request.newRate() < 0) {
+                throw new IllegalArgumentException("Interest rate cannot be negative");
+            }
+
+            RateResetJob job = transactionTemplate.execute(status -> createJob(request));
+            if (job.getStatus() == RateResetStatus.RUNNING) {
+                runJob(job);
+            }
+            return ApiResponse.ok("Rate reset started", toResponse(job));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to start rate reset: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ApiResponse<RateResetJobResponse> getJob(Long jobId) {
+        RateResetJob job = findJob(jobId);
+        return ApiResponse.ok("Rate reset retrieved successfully", toResponse(job));
+    }
+
+    @Override
+    public ApiResponse<RateResetJobResponse> resumeJob(Long jobId) {
+        RateResetJob job = findJob(jobId);
+        if (job.getStatus() == RateResetStatus.COMPLETED) {
+            throw new IllegalArgumentException("Rate reset " + jobId + " has already completed");
+        }
+        if (runningJobs.contains(jobId) || !claim(jobId)) {
+            throw new IllegalArgumentException("Rate reset " + jobId + " is already running");
+        }
+        job.setStatus(RateResetStatus.RUNNING);
+        runJob(job);
+        return ApiResponse.ok("Rate reset resumed", toResponse(job));
+    }
+
+    /** Picks up jobs left running by this node before it stopped, or by a node whose lease lapsed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (RateResetJob job : jobRepository.findByStatus(RateResetStatus.RUNNING)) {
+            if (!claim(job.getId())) {
+                continue;
+            }
+            log.info("Resuming interrupted rate reset {}", job.getId());
+            runJob(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private RateResetJob createJob(RateResetRequest request) {
+        Long minId = loanAccountRepository.findMinIdByInterestTypeAndStatus(InterestType.FLOATING, LoanStatus.ACTIVE);
+        Long maxId = loanAccountRepository.findMaxIdByInterestTypeAndStatus(InterestType.FLOATING, LoanStatus.ACTIVE);
+
+        List<long[]> ranges = new ArrayList<>();
+        if (minId != null) {
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                ranges.add(new long[]{from, Math.min(from + chunkSize - 1, maxId)});
+            }
+        }
+
+        RateResetJob job = jobRepository.save(RateResetJob.builder()
+                .newRate(request.newRate())
+                .effectiveDate(request.effectiveDate())
+                .status(ranges.isEmpty() ? RateResetStatus.COMPLETED : RateResetStatus.RUNNING)
+                .totalChunks(ranges.size())
+                .owner(workLease.nodeId())
+                .leaseExpiresAt(workLease.expiry())
+                .build());
+
+        List<RateResetChunk> chunks = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            chunks.add(RateResetChunk.builder()
+                    .job(job)
+                    .fromLoanId(range[0])
+                    .toLoanId(range[1])
+                    .status(RateResetStatus.PENDING)
+                    .build());
+        }
+        chunkRepository.saveAll(chunks);
+        return job;
+    }
+
+    private void runJob(RateResetJob job) {
+        if (!runningJobs.add(job.getId())) {
+            return;
+        }
+        List<CompletableFuture<Void>> futures = chunkRepository
+                .findByJobIdAndStatusNotOrderByFromLoanIdAsc(job.getId(), RateResetStatus.COMPLETED).stream()
+                .map(chunk -> CompletableFuture.runAsync(() -> processChunk(job, chunk), workers))
+                .toList();
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> finishJob(job.getId()));
+    }
+
+    private void processChunk(RateResetJob job, RateResetChunk chunk) {
+        try {
+            long fromId = chunk.getFromLoanId();
+            long toId = chunk.getToLoanId();
+            double monthlyRate = job.getNewRate() / 12 / 100;
+
+            int[] counts = transactionTemplate.execute(status -> {
+                int installments = installmentRepository.repriceFlatFloatingInstallments(
+                        fromId, toId, monthlyRate, job.getEffectiveDate(), defaultMethod.name());
+                int loans = loanAccountRepository.updateFlatFloatingBaseRate(
+                        fromId, toId, job.getNewRate(), job.getEffectiveDate(), defaultMethod.name());
+                scheduleCache.evictRange(fromId, toId);
+                return new int[]{loans, installments};
+            });
+
+            List<Long> engineLoanIds = loanAccountRepository.findIdsNeedingEngineRepricing(fromId, toId,
+                    InterestType.FLOATING, LoanStatus.ACTIVE, ScheduleStorage.VIRTUAL, defaultMethod, AmortizationMethod.FLAT);
+            for (Long loanId : engineLoanIds) {
+                LoanAccount loanAccount = loanAccountRepository.findById(loanId).orElse(null);
+                if (loanAccount == null) {
+                    continue;
+                }
+                int effectiveFrom = firstInstallmentDueOnOrAfter(loanAccount, job.getEffectiveDate());
+                if (effectiveFrom > loanAccount.getTenureMonths()) {
+                    continue;
+                }
+                scheduleService.updateScheduleAfterRateChange(loanId, job.getNewRate(), effectiveFrom);
+                counts[0]++;
+                counts[1] += loanAccount.getTenureMonths() - effectiveFrom + 1;
+            }
+
+            chunk.setLoansRepriced(counts[0]);
+            chunk.setInstallmentsUpdated(counts[1]);
+            chunk.setStatus(RateResetStatus.COMPLETED);
+            chunk.setLastError(null);
+        } catch (Exception e) {
+            log.error("Rate reset {} failed for loans {}-{}", job.getId(), chunk.getFromLoanId(), chunk.getToLoanId(), e);
+            String message = e.getMessage();
+            chunk.setStatus(RateResetStatus.FAILED);
+            chunk.setLastError(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        }
+        try {
+            chunkRepository.save(chunk);
+        } catch (Exception e) {
+            // The chunk stays not COMPLETED, so the job finishes as FAILED and can be resumed
+            log.error("Could not record rate reset {} chunk {}-{}", job.getId(), chunk.getFromLoanId(), chunk.getToLoanId(), e);
+        }
+    }
+
+    private boolean claim(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.claim(jobId, workLease.nodeId(), now,
+                workLease.expiry(), RateResetStatus.RUNNING, RateResetStatus.COMPLETED));
+        return claimed != null && claimed == 1;
+    }
+
+    private void finishJob(Long jobId) {
+        try {
+            RateResetJob job = findJob(jobId);
+            long completed = chunkRepository.countByJobIdAndStatus(jobId, RateResetStatus.COMPLETED);
+            job.setStatus(completed == job.getTotalChunks() ? RateResetStatus.COMPLETED : RateResetStatus.FAILED);
+            jobRepository.save(job);
+            log.info("Rate reset {} finished as {} ({}/{} chunks)", jobId, job.getStatus(), completed, job.getTotalChunks());
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    // Installment i of a loan is due on startDate + i months
+    private int firstInstallmentDueOnOrAfter(LoanAccount loanAccount, LocalDate effectiveDate) {
+        int installmentNumber = 1;
+        while (installmentNumber <= loanAccount.getTenureMonths()
+                && loanAccount.getStartDate().plusMonths(installmentNumber).isBefore(effectiveDate)) {
+            installmentNumber++;
+        }
+        return installmentNumber;
+    }
+
+    private RateResetJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rate reset not found with ID: " + jobId));
+    }
+
+    private RateResetJobResponse toResponse(RateResetJob job) {
+        Long jobId = job.getId();
+        return new RateResetJobResponse(
+                jobId,
+                job.getNewRate(),
+                job.getEffectiveDate(),
+                job.getStatus().toString(),
+                job.getTotalChunks(),
+                chunkRepository.countByJobIdAndStatus(jobId, RateResetStatus.COMPLETED),
+                chunkRepository.countByJobIdAndStatus(jobId, RateResetStatus.FAILED),
+                chunkRepository.sumLoansRepriced(jobId),
+                chunkRepository.sumInstallmentsUpdated(jobId)
+        );
+    }
+}
@@ -0,0 +1,445 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RepaymentRequest;
+import com.finance.loanms.dto.response.RepaymentIngestJobResponse;
+import com.finance.loanms.exception.ResourceNotFoundException;
+import com.finance.loanms.model.entity.RepaymentIngestJob;
+import com.finance.loanms.model.enumtype.IngestStatus;
+import com.finance.loanms.repository.RepaymentIngestJobRepository;
+import com.finance.loanms.repository.RepaymentRepository;
+import com.finance.loanms.service.RepaymentIngestService;
+import com.finance.loanms.service.RepaymentService;
+import com.finance.loanms.util.TransactionIdFilter;
+import com.finance.loanms.util.WorkLease;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Streams a settlement file line by line. Lines are checked for duplicate transaction IDs a block at a
+ * time with one query, then handed to a fixed set of stripe workers chosen by loan id, so the lines of
+ * one loan are always posted in file order by the same thread. Each worker commits its lines in
+ * batches and falls back to one transaction per line when a batch fails, isolating the bad line.
+ * A worker that dies fails the whole job rather than leaving the reader waiting on its queue.
+ * <p>
+ * The uploaded file is deleted once its run ends; result files are kept for {@code result-retention}.
+ * A job is owned by the node holding its {@link WorkLease}, since its files live on that node's disk.
+ */
+@Slf4j
+@Service
+public class RepaymentIngestServiceImpl implements RepaymentIngestService {
+
+    private static final String RESULT_HEADER = "line,transactionId,loanId,status,message";
+    private static final int DEDUPE_BLOCK = 5000;
+    private static final long QUEUE_WAIT_MILLIS = 200;
+    private static final IngestLine END = new IngestLine(0, 0L, null);
+    private static final List<IngestStatus> UNFINISHED = List.of(IngestStatus.PENDING, IngestStatus.RUNNING);
+
+    private final RepaymentIngestJobRepository jobRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final RepaymentService repaymentService;
+    private final TransactionIdFilter transactionIdFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkLease workLease;
+    private final Path workDir;
+    private final Duration resultRetention;
+    private final int workers;
+    private final int batchSize;
+    // Files are ingested one at a time; each run gets its own stripe workers
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+    private final Map<Long, Progress> running = new ConcurrentHashMap<>();
+
+    public RepaymentIngestServiceImpl(RepaymentIngestJobRepository jobRepository, RepaymentRepository repaymentRepository,
+                                      RepaymentService repaymentService, TransactionIdFilter transactionIdFilter,
+                                      PlatformTransactionManager transactionManager, WorkLease workLease,
+                                      @Value("${repayment-ingest.work-dir:${java.io.tmpdir}/loanms-ingest}") Path workDir,
+                                      @Value("${repayment-ingest.result-retention:P7D}") Duration resultRetention,
+                                      @Value("${repayment-ingest.workers:8}") int workers,
+                                      @Value("${repayment-ingest.batch-size:200}") int batchSize) {
+        this.jobRepository = jobRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.repaymentService = repaymentService;
+        this.transactionIdFilter = transactionIdFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workLease = workLease;
+        this.workDir = workDir;
+        this.resultRetention = resultRetention;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        workLease.onRenew(until -> transactionTemplate.executeWithoutResult(status ->
+                jobRepository.renewLeases(workLease.nodeId(), UNFINISHED, until)));
+    }
+
+    @Override
+    public ApiResponse<RepaymentIngestJobResponse> startIngest(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Settlement file cannot be empty");
+        }
+        Files.createDirectories(workDir);
+        purgeExpiredFiles();
+
+        RepaymentIngestJob job = jobRepository.save(RepaymentIngestJob.builder()
+                .fileName(file.getOriginalFilename())
+                .status(IngestStatus.PENDING)
+                .owner(workLease.nodeId())
+                .leaseExpiresAt(workLease.expiry())
+                .build());
+        Path input = workDir.resolve("ingest-" + job.getId() + ".csv");
+        Path output = workDir.resolve("ingest-" + job.getId() + "-results.csv");
+        file.transferTo(input);
+        job.setResultPath(output.toString());
+        jobRepository.save(job);
+
+        running.put(job.getId(), new Progress());
+        coordinator.submit(() -> run(job.getId(), input, output));
+        return ApiResponse.ok("Settlement file accepted", toResponse(job));
+    }
+
+    @Override
+    public ApiResponse<RepaymentIngestJobResponse> getJob(Long jobId) {
+        return ApiResponse.ok("Ingest job retrieved successfully", toResponse(findJob(jobId)));
+    }
+
+    @Override
+    public void writeResults(Long jobId, HttpServletResponse response) throws IOException {
+        RepaymentIngestJob job = findJob(jobId);
+        if (job.getStatus() != IngestStatus.COMPLETED && job.getStatus() != IngestStatus.FAILED) {
+            throw new IllegalArgumentException("Ingest job " + jobId + " has not finished yet");
+        }
+        Path results = Path.of(job.getResultPath());
+        if (!Files.exists(results)) {
+            throw new ResourceNotFoundException("Results are no longer available for ingest job " + jobId);
+        }
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=\"ingest-" + jobId + "-results.csv\"");
+        Files.copy(results, response.getOutputStream());
+    }
+
+    /**
+     * A run cut short by a restart cannot be continued; re-submitting the file posts what is missing.
+     * Jobs of other nodes are left alone while their lease is renewed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RepaymentIngestJob job : jobRepository.findByStatusIn(UNFINISHED)) {
+            Integer failed = transactionTemplate.execute(status -> jobRepository.failAbandoned(job.getId(),
+                    workLease.nodeId(), now, UNFINISHED, IngestStatus.FAILED,
+                    "Interrupted by a restart; re-submit the file to post the remaining lines"));
+            if (failed != null && failed == 1) {
+                deleteQuietly(workDir.resolve("ingest-" + job.getId() + ".csv"));
+            }
+        }
+        purgeExpiredFiles();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private void run(Long jobId, Path input, Path output) {
+        Progress progress = running.get(jobId);
+        RepaymentIngestJob job = findJob(jobId);
+        job.setStatus(IngestStatus.RUNNING);
+        jobRepository.save(job);
+
+        ExecutorService stripeThreads = Executors.newFixedThreadPool(workers);
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             ResultWriter results = new ResultWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            List<Stripe> stripes = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                Stripe stripe = new Stripe(results, progress);
+                stripe.run = stripeThreads.submit(stripe);
+                stripes.add(stripe);
+            }
+
+            Set<String> seenTransactionIds = new HashSet<>();
+            List<IngestLine> block = new ArrayList<>(DEDUPE_BLOCK);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith("loanId"))) {
+                    continue;
+                }
+                progress.total.incrementAndGet();
+                IngestLine parsed;
+                try {
+                    parsed = parse(lineNumber, line);
+                } catch (RuntimeException e) {
+                    results.write(lineNumber, null, null, "INVALID", e.getMessage());
+                    progress.rejected.incrementAndGet();
+                    continue;
+                }
+                block.add(parsed);
+                if (block.size() == DEDUPE_BLOCK) {
+                    dispatch(block, seenTransactionIds, stripes, results, progress);
+                    block.clear();
+                }
+            }
+            dispatch(block, seenTransactionIds, stripes, results, progress);
+
+            for (Stripe stripe : stripes) {
+                stripe.send(END);
+            }
+            for (Stripe stripe : stripes) {
+                stripe.run.get();
+            }
+            job.setStatus(IngestStatus.COMPLETED);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Repayment ingest {} failed", jobId, cause);
+            String message = cause.getMessage();
+            job.setStatus(IngestStatus.FAILED);
+            job.setLastError(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        } finally {
+            stripeThreads.shutdownNow();
+            deleteQuietly(input);
+            job.setTotalLines(progress.total.get());
+            job.setPostedLines(progress.posted.get());
+            job.setRejectedLines(progress.rejected.get());
+            try {
+                jobRepository.save(job);
+            } finally {
+                running.remove(jobId);
+            }
+        }
+    }
+
+    // Results older than the retention, and uploads orphaned by a crash, are deleted
+    private void purgeExpiredFiles() {
+        if (!Files.isDirectory(workDir)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(resultRetention));
+        try (Stream<Path> files = Files.list(workDir)) {
+            files.filter(path -> path.getFileName().toString().startsWith("ingest-"))
+                    .filter(path -> {
+                        try {
+                            return Files.getLastModifiedTime(path).compareTo(cutoff) < 0;
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .forEach(RepaymentIngestServiceImpl::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not purge expired ingest files in {}", workDir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete ingest file {}", path, e);
+        }
+    }
+
+    // One query per block finds transaction IDs that were already posted; the set catches repeats within the file
+    private void dispatch(List<IngestLine> block, Set<String> seenTransactionIds, List<Stripe> stripes,
+                          ResultWriter results, Progress progress) throws Exception {
+        if (block.isEmpty()) {
+            return;
+        }
+        List<String> maybePosted = block.stream()
+                .map(line -> line.request().transactionId())
+                .filter(transactionIdFilter::mightContain)
+                .toList();
+        Set<String> existing = maybePosted.isEmpty()
+                ? Set.of() : new HashSet<>(repaymentRepository.findExistingTransactionIds(maybePosted));
+        for (IngestLine line : block) {
+            String transactionId = line.request().transactionId();
+            if (existing.contains(transactionId) || !seenTransactionIds.add(transactionId)) {
+                results.write(line.lineNumber(), transactionId, line.loanId(), "DUPLICATE", "Transaction ID already posted");
+                progress.rejected.incrementAndGet();
+                continue;
+            }
+            stripes.get((int) Math.floorMod(line.loanId(), (long) stripes.size())).send(line);
+        }
+    }
+
+    private static IngestLine parse(int lineNumber, String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 fields: loanId,amount,paymentDate,mode,transactionId");
+        }
+        try {
+            RepaymentRequest request = new RepaymentRequest(Double.parseDouble(fields[1].trim()),
+                    LocalDate.parse(fields[2].trim()), fields[3].trim(), fields[4].trim());
+            if (request.transactionId().isEmpty()) {
+                throw new IllegalArgumentException("Transaction ID is required");
+            }
+            return new IngestLine(lineNumber, Long.parseLong(fields[0].trim()), request);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unparseable line: " + e.getMessage(), e);
+        }
+    }
+
+    private RepaymentIngestJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ingest job not found with ID: " + jobId));
+    }
+
+    private RepaymentIngestJobResponse toResponse(RepaymentIngestJob job) {
+        Progress progress = running.get(job.getId());
+        if (progress != null) {
+            return new RepaymentIngestJobResponse(job.getId(), job.getFileName(), IngestStatus.RUNNING.toString(),
+                    progress.total.get(), progress.posted.get(), progress.rejected.get());
+        }
+        return new RepaymentIngestJobResponse(job.getId(), job.getFileName(), job.getStatus().toString(),
+                job.getTotalLines(), job.getPostedLines(), job.getRejectedLines());
+    }
+
+    private record IngestLine(int lineNumber, Long loanId, RepaymentRequest request) {
+    }
+
+    private static final class Progress {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong posted = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+    }
+
+    /** Worker owning every loan whose id maps to it; posts its queue in order, a batch per transaction. */
+    private final class Stripe implements Runnable {
+
+        // Bounded so a slow stripe holds back the reader instead of buffering the file
+        private final BlockingQueue<IngestLine> queue = new ArrayBlockingQueue<>(batchSize * 4);
+        private final ResultWriter results;
+        private final Progress progress;
+        private Future<?> run;
+
+        private Stripe(ResultWriter results, Progress progress) {
+            this.results = results;
+            this.progress = progress;
+        }
+
+        /** Queues a line, giving up with the worker's own failure if it has stopped taking lines. */
+        private void send(IngestLine line) throws Exception {
+            while (!queue.offer(line, QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (run.isDone()) {
+                    run.get();
+                    throw new IllegalStateException("An ingest worker stopped before the file was fully read");
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<IngestLine> batch = new ArrayList<>(batchSize);
+            try {
+                while (true) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, batchSize - 1);
+                    boolean end = batch.remove(END);
+                    post(batch);
+                    batch.clear();
+                    if (end) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write ingest results", e);
+            }
+        }
+
+        private void post(List<IngestLine> batch) throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(
+                        line -> repaymentService.applyRepayment(line.loanId(), line.request())));
+                for (IngestLine line : batch) {
+                    results.write(line.lineNumber(), line.request().transactionId(), line.loanId(), "POSTED", "");
+                }
+                progress.posted.addAndGet(batch.size());
+            } catch (RuntimeException batchFailure) {
+                // Replay line by line so only the offending lines are rejected
+                for (IngestLine line : batch) {
+                    try {
+                        repaymentService.applyRepayment(line.loanId(), line.request());
+                        results.write(line.lineNumber(), line.request().transactionId(), line.loanId(), "POSTED", "");
+                        progress.posted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        results.write(line.lineNumber(), line.request().transactionId(), line.loanId(), "FAILED", e.getMessage());
+                        progress.rejected.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Per-line outcome CSV shared by the reader and the stripe workers. */
+    private static final class ResultWriter implements AutoCloseable {
+
+        private final BufferedWriter writer;
+
+        private ResultWriter(BufferedWriter writer) throws IOException {
+            this.writer = writer;
+            writer.write(RESULT_HEADER);
+            writer.newLine();
+        }
+
+        synchronized void write(int lineNumber, String transactionId, Long loanId, String status, String message)
+                throws IOException {
+            writer.write(lineNumber + "," + csv(transactionId) + "," + (loanId == null ? "" : loanId) + ","
+                    + status + "," + csv(message));
+            writer.newLine();
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.ApiResponse;
+import com.finance.loanms.dto.request.RepaymentRequest;
+import com.finance.loanms.dto.response.RepaymentResponse;
+import com.finance.loanms.dto.response.RepaymentStatusResponse;
+import com.finance.loanms.exception.ResourceNotFoundException;
+import com.finance.loanms.model.entity.QueuedRepayment;
+import com.finance.loanms.model.enumtype.QueuedRepaymentStatus;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.repository.QueuedRepaymentRepository;
+import com.finance.loanms.repository.RepaymentRepository;
+import com.finance.loanms.service.RepaymentQueueService;
+import com.finance.loanms.service.RepaymentService;
+import com.finance.loanms.util.TransactionIdFilter;
+import com.finance.loanms.util.WorkLease;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Accepts repayments by writing them to the {@link QueuedRepayment} table and applies them in the
+ * background. Each entry runs on its own virtual thread, chained behind the previous entry of the same
+ * loan so one loan's payments are applied in arrival order; a semaphore caps how many are applied at
+ * once so bursts queue in memory instead of exhausting the connection pool. Unfinished entries belong
+ * to the node holding their {@link WorkLease}.
+ */
+@Slf4j
+@Service
+public class RepaymentQueueServiceImpl implements RepaymentQueueService {
+
+    private static final CompletableFuture<Void> IDLE = CompletableFuture.completedFuture(null);
+    private static final List<QueuedRepaymentStatus> PENDING =
+            List.of(QueuedRepaymentStatus.QUEUED, QueuedRepaymentStatus.PROCESSING);
+
+    private final QueuedRepaymentRepository queueRepository;
+    private final LoanAccountRepository loanAccountRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final RepaymentService repaymentService;
+    private final TransactionIdFilter transactionIdFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkLease workLease;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Last pending entry per loan; new entries of the loan are chained behind it
+    private final Map<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public RepaymentQueueServiceImpl(QueuedRepaymentRepository queueRepository, LoanAccountRepository loanAccountRepository,
+                                     RepaymentRepository repaymentRepository, RepaymentService repaymentService,
+                                     TransactionIdFilter transactionIdFilter, PlatformTransactionManager transactionManager,
+                                     WorkLease workLease,
+                                     @Value("${repayment.async.max-concurrency:8}") int maxConcurrency) {
+        this.queueRepository = queueRepository;
+        this.loanAccountRepository = loanAccountRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.repaymentService = repaymentService;
+        this.transactionIdFilter = transactionIdFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workLease = workLease;
+        this.permits = new Semaphore(maxConcurrency);
+        workLease.onRenew(until -> transactionTemplate.executeWithoutResult(status ->
+                queueRepository.renewLeases(workLease.nodeId(), PENDING, until)));
+    }
+
+    @Override
+    public ApiResponse<RepaymentStatusResponse> enqueue(Long loanId, RepaymentRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Repayment request cannot be null");
+        }
+        if (request.amountPaid() == null || request.amountPaid() <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than 0");
+        }
+        if (request.transactionId() == null || request.transactionId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Transaction ID is required");
+        }
+        if (!loanAccountRepository.existsById(loanId)) {
+            throw new ResourceNotFoundException("Loan not found with ID: " + loanId);
+        }
+
+        Optional<QueuedRepayment> existing = queueRepository.findByTransactionId(request.transactionId());
+        if (existing.isPresent()) {
+            return resubmitted(existing.get(), loanId);
+        }
+        if (transactionIdFilter.mightContain(request.transactionId())
+                && repaymentRepository.existsByTransactionId(request.transactionId())) {
+            throw new IllegalStateException("Duplicate transaction ID: " + request.transactionId());
+        }
+
+        QueuedRepayment entry;
+        try {
+            entry = queueRepository.save(QueuedRepayment.builder()
+                    .loanId(loanId)
+                    .amountPaid(request.amountPaid())
+                    .paymentDate(request.paymentDate())
+                    .mode(request.mode())
+                    .transactionId(request.transactionId())
+                    .status(QueuedRepaymentStatus.QUEUED)
+                    .owner(workLease.nodeId())
+                    .leaseExpiresAt(workLease.expiry())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // The same payment raced in on another request
+            return resubmitted(queueRepository.findByTransactionId(request.transactionId()).orElseThrow(() -> e), loanId);
+        }
+        dispatch(entry.getId(), loanId);
+        return ApiResponse.ok("Repayment accepted", toResponse(entry));
+    }
+
+    @Override
+    public ApiResponse<RepaymentStatusResponse> getStatus(Long trackingId) {
+        QueuedRepayment entry = queueRepository.findById(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Repayment not found with tracking ID: " + trackingId));
+        return ApiResponse.ok("Repayment status retrieved successfully", toResponse(entry));
+    }
+
+    /**
+     * Re-queues entries this node left behind before a restart, and those of nodes whose lease has lapsed;
+     * entries a live node is working on are left to it. An entry caught mid-way whose repayment did get
+     * committed is only marked applied, so it is not rejected as its own duplicate.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        LocalDateTime now = LocalDateTime.now();
+        int resumed = 0;
+        for (QueuedRepayment entry : queueRepository.findByStatusInOrderByIdAsc(PENDING)) {
+            Integer claimed = transactionTemplate.execute(status -> queueRepository.reclaim(entry.getId(),
+                    entry.getStatus(), workLease.nodeId(), now, workLease.expiry(), QueuedRepaymentStatus.QUEUED));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            resumed++;
+            if (entry.getStatus() == QueuedRepaymentStatus.PROCESSING
+                    && repaymentRepository.existsByTransactionId(entry.getTransactionId())) {
+                finish(entry, QueuedRepaymentStatus.APPLIED, "Repayment processed");
+                continue;
+            }
+            dispatch(entry.getId(), entry.getLoanId());
+        }
+        if (resumed > 0) {
+            log.info("Resumed {} queued repayments", resumed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished entries stay QUEUED or PROCESSING and are picked up again on the next start
+        executor.shutdownNow();
+    }
+
+    private ApiResponse<RepaymentStatusResponse> resubmitted(QueuedRepayment entry, Long loanId) {
+        if (!entry.getLoanId().equals(loanId)) {
+            throw new IllegalStateException("Duplicate transaction ID: " + entry.getTransactionId());
+        }
+        if (entry.getStatus() == QueuedRepaymentStatus.FAILED
+                && transactionTemplate.execute(status -> queueRepository.transition(entry.getId(),
+                QueuedRepaymentStatus.FAILED, QueuedRepaymentStatus.QUEUED, workLease.nodeId(), workLease.expiry())) == 1) {
+            entry.setStatus(QueuedRepaymentStatus.QUEUED);
+            entry.setMessage(null);
+            dispatch(entry.getId(), loanId);
+            return ApiResponse.ok("Repayment accepted", toResponse(entry));
+        }
+        return ApiResponse.ok("Repayment already accepted", toResponse(entry));
+    }
+
+    private void dispatch(Long entryId, Long loanId) {
+        CompletableFuture<Void> next = tails.compute(loanId, (id, tail) ->
+                (tail == null ? IDLE : tail).thenRunAsync(() -> process(entryId), executor));
+        next.whenComplete((result, error) -> tails.remove(loanId, next));
+    }
+
+    private void process(Long entryId) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            Integer claimed = transactionTemplate.execute(status -> queueRepository.transition(entryId,
+                    QueuedRepaymentStatus.QUEUED, QueuedRepaymentStatus.PROCESSING, workLease.nodeId(), workLease.expiry()));
+            if (claimed == null || claimed == 0) {
+                return;
+            }
+            QueuedRepayment entry = queueRepository.findById(entryId).orElseThrow();
+            RepaymentRequest request = new RepaymentRequest(entry.getAmountPaid(), entry.getPaymentDate(),
+                    entry.getMode(), entry.getTransactionId());
+            try {
+                ApiResponse<RepaymentResponse> result = repaymentService.applyRepayment(entry.getLoanId(), request);
+                finish(entry, QueuedRepaymentStatus.APPLIED, result.getMessage());
+            } catch (IllegalArgumentException | IllegalStateException | ResourceNotFoundException e) {
+                // Booked already under the entry's own transaction id, e.g. by an attempt cut short before finish
+                if (repaymentRepository.existsByTransactionId(entry.getTransactionId())) {
+                    finish(entry, QueuedRepaymentStatus.APPLIED, "Repayment processed");
+                } else {
+                    finish(entry, QueuedRepaymentStatus.REJECTED, e.getMessage());
+                }
+            } catch (Exception e) {
+                log.warn("Queued repayment {} failed", entryId, e);
+                finish(entry, QueuedRepaymentStatus.FAILED, e.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Could not process queued repayment {}", entryId, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void finish(QueuedRepayment entry, QueuedRepaymentStatus status, String message) {
+        entry.setStatus(status);
+        entry.setMessage(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        queueRepository.save(entry);
+    }
+
+    private RepaymentStatusResponse toResponse(QueuedRepayment entry) {
+        return new RepaymentStatusResponse(entry.getId(), entry.getLoanId(), entry.getTransactionId(),
+                entry.getStatus().name(), entry.getMessage(), entry.getCreatedAt(), entry.getUpdatedAt());
+    }
+}
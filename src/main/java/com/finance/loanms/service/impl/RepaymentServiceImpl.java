@@ -1,5 +1,6 @@
 package com.finance.loanms.service.impl;
 
+import com.finance.loanms.concurrency.LoanWrite;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.request.RepaymentRequest;
 import com.finance.loanms.dto.response.RepaymentHistory;
@@ -11,35 +12,79 @@ import com.finance.loanms.model.entity.Installment;
 import com.finance.loanms.model.entity.LoanAccount;
 import com.finance.loanms.model.entity.Repayment;
 import com.finance.loanms.model.enumtype.InstallmentStatus;
+import com.finance.loanms.repayment.allocation.Allocation;
+import com.finance.loanms.repayment.allocation.AllocationBucket;
+import com.finance.loanms.repayment.allocation.AllocationEngine;
 import com.finance.loanms.repository.InstallmentRepository;
 import com.finance.loanms.repository.LoanAccountRepository;
 import com.finance.loanms.repository.RepaymentRepository;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.service.ChargeService;
 import com.finance.loanms.service.RepaymentService;
+import com.finance.loanms.service.ScheduleService;
+import com.finance.loanms.util.TransactionIdFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class RepaymentServiceImpl implements RepaymentService {
 
+    private static final int INSTALLMENT_PAGE = 12;
+    private static final int MAX_HISTORY_PAGE = 500;
+    // Bounds of MySQL's DATE type, used when the history is not filtered by date
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     private final LoanAccountRepository loanAccountRepository;
     private final InstallmentRepository installmentRepository;
     private final RepaymentRepository repaymentRepository;
     private final com.finance.loanms.repository.ChargeRepository chargeRepository;
+    private final ChargeService chargeService;
+    private final ScheduleService scheduleService;
+    private final ScheduleResponseCache scheduleCache;
+    private final TransactionIdFilter transactionIdFilter;
+    private final List<AllocationBucket> allocationOrder;
+    // Looks past the failed write of the current transaction at what is actually committed
+    private final TransactionTemplate committedRead;
 
     public RepaymentServiceImpl(LoanAccountRepository loanAccountRepository,
             InstallmentRepository installmentRepository,
             RepaymentRepository repaymentRepository,
-            com.finance.loanms.repository.ChargeRepository chargeRepository) {
+            com.finance.loanms.repository.ChargeRepository chargeRepository,
+            ChargeService chargeService,
+            ScheduleService scheduleService,
+            ScheduleResponseCache scheduleCache,
+            TransactionIdFilter transactionIdFilter,
+            PlatformTransactionManager transactionManager,
+            @Value("${repayment.allocation.order:CHARGES,INTEREST,PRINCIPAL,FUTURE}") List<String> allocationOrder) {
         this.loanAccountRepository = loanAccountRepository;
         this.installmentRepository = installmentRepository;
         this.repaymentRepository = repaymentRepository;
         this.chargeRepository = chargeRepository;
+        this.chargeService = chargeService;
+        this.scheduleService = scheduleService;
+        this.scheduleCache = scheduleCache;
+        this.transactionIdFilter = transactionIdFilter;
+        this.allocationOrder = AllocationEngine.parseOrder(allocationOrder);
+        this.committedRead = new TransactionTemplate(transactionManager);
+        this.committedRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedRead.setReadOnly(true);
     }
 
+    @LoanWrite
     @Transactional
     @Override
     public ApiResponse<RepaymentResponse> applyRepayment(Long loanId, RepaymentRequest request) {
@@ -57,77 +102,93 @@ public class RepaymentServiceImpl implements RepaymentService {
             LoanAccount loanAccount = loanAccountRepository.findById(loanId)
                     .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
 
-            if (repaymentRepository.existsByTransactionId(request.transactionId())) {
+            // The filter rules out almost every new ID without a query
+            if (transactionIdFilter.mightContain(request.transactionId())
+                    && repaymentRepository.existsByTransactionId(request.transactionId())) {
                 throw new IllegalStateException("Duplicate transaction ID: " + request.transactionId());
             }
 
-            double amountToApply = request.amountPaid();
-
-            // 1. Pay off outstanding charges first
-            List<Charge> unpaidCharges = chargeRepository.findByLoanAccountAndIsPaidFalse(loanAccount);
-            for (Charge charge : unpaidCharges) {
-                if (amountToApply <= 0)
-                    break;
-
-                double chargeAmount = charge.getAmount();
-                if (amountToApply >= chargeAmount) {
-                    amountToApply -= chargeAmount;
-                    charge.setPaid(true);
-                    chargeRepository.save(charge);
-                } else {
-                    // Partial payment logic could go here, but for now we skip if not enough to
-                    // cover full charge
-                    // or we could deduct partial. Let's stick to full payment for simplicity or
-                    // just break.
-                    break;
+            long amount = AllocationEngine.toCents(request.amountPaid());
+            // The running total stands in for the charges: CHARGES settles them oldest first either way
+            long chargesDue = AllocationEngine.toCents(chargeService.outstandingCharges(loanAccount));
+            List<Installment> installments = loadInstallmentsToAllocate(loanAccount, request.paymentDate(), amount);
+
+            long[] chargeDue = chargesDue > 0 ? new long[]{chargesDue} : new long[0];
+            long[] interestDue = new long[installments.size()];
+            long[] principalDue = new long[installments.size()];
+            int overdueCount = 0;
+            for (int i = 0; i < installments.size(); i++) {
+                Installment installment = installments.get(i);
+                // Principal takes what is left of the rounded total, so settling both parts pays exactly the total
+                interestDue[i] = AllocationEngine.toCents(interestDue(installment));
+                principalDue[i] = AllocationEngine.toCents(interestDue(installment) + principalDue(installment))
+                        - interestDue[i];
+                if (!installment.getDueDate().isAfter(request.paymentDate())) {
+                    overdueCount = i + 1;
                 }
             }
 
-            if (amountToApply <= 0) {
-                return ApiResponse.ok("Repayment applied to charges successfully",
-                        new RepaymentResponse("Charges paid", null));
+            Allocation allocation = AllocationEngine.allocate(amount, allocationOrder, chargeDue, interestDue,
+                    principalDue, overdueCount);
+            if (allocation.unallocated() > 0) {
+                throw new IllegalArgumentException("Payment exceeds the amount outstanding under the allocation order by ₹"
+                        + BigDecimal.valueOf(allocation.unallocated(), 2));
             }
 
-            List<Installment> installments = installmentRepository
-                    .findByLoanAccountOrderByInstallmentNumberAsc(loanAccount);
-
-            for (Installment installment : installments) {
-                if (installment.getStatus() == InstallmentStatus.PAID)
-                    continue;
-
-                double totalPaid = installment.getRepayments().stream()
-                        .mapToDouble(Repayment::getAmount)
-                        .sum();
-
-                double pendingAmount = installment.getTotalAmount() - totalPaid;
-
-                BigDecimal amountToApplyRounded = BigDecimal.valueOf(amountToApply).setScale(2, RoundingMode.HALF_UP);
-                BigDecimal pendingAmountRounded = BigDecimal.valueOf(pendingAmount).setScale(2, RoundingMode.HALF_UP);
-
-                if (amountToApplyRounded.compareTo(pendingAmountRounded) != 0) {
-                    throw new IllegalArgumentException(
-                            "Amount (after charges) does not match the next due EMI: ₹" + pendingAmountRounded);
+            if (chargeDue.length > 0 && allocation.toCharge(0) > 0) {
+                settleCharges(loanAccount, allocation.toCharge(0), allocation.toCharge(0) == chargesDue);
+            }
+            List<Installment> touchedInstallments = new ArrayList<>();
+            for (int i = 0; i < installments.size(); i++) {
+                if (allocation.toInterest(i) > 0 || allocation.toPrincipal(i) > 0) {
+                    Installment installment = installments.get(i);
+                    settle(installment, allocation.toInterest(i), allocation.toInterest(i) == interestDue[i],
+                            allocation.toPrincipal(i), allocation.toPrincipal(i) == principalDue[i]);
+                    touchedInstallments.add(installment);
                 }
+            }
 
-                Repayment repayment = Repayment.builder()
-                        .loanAccount(loanAccount)
-                        .installment(installment)
-                        .amount(amountToApply)
-                        .paymentDate(request.paymentDate())
-                        .transactionId(request.transactionId())
-                        .mode(request.mode())
-                        .build();
+            // Book the payment against the first installment it reached, else the one due next
+            Installment anchor = !touchedInstallments.isEmpty() ? touchedInstallments.get(0)
+                    : !installments.isEmpty() ? installments.get(0)
+                    : scheduleService.getInstallments(loanAccount, loanAccount.getTenureMonths(), 1).get(0);
+            if (anchor.getId() == null && !touchedInstallments.contains(anchor)) {
+                touchedInstallments.add(anchor);
+            }
+            // Installments go out together as JDBC batches
+            List<Installment> saved = installmentRepository.saveAll(touchedInstallments);
+            if (anchor.getId() == null) {
+                anchor = saved.get(touchedInstallments.indexOf(anchor));
+            }
 
-                repayment = repaymentRepository.save(repayment);
-                installment.getRepayments().add(repayment);
-                installment.setStatus(InstallmentStatus.PAID);
-                installmentRepository.save(installment);
+            Repayment repayment = Repayment.builder()
+                    .loanAccount(loanAccount)
+                    .installment(anchor)
+                    .amount(request.amountPaid())
+                    .paymentDate(request.paymentDate())
+                    .transactionId(request.transactionId())
+                    .mode(request.mode())
+                    .build();
 
-                return ApiResponse.ok("Repayment applied successfully",
-                        new RepaymentResponse("Repayment processed", null));
+            try {
+                // Flushed so a duplicate the filter could not know about surfaces here
+                repayment = repaymentRepository.saveAndFlush(repayment);
+            } catch (DataIntegrityViolationException e) {
+                // The flush also writes the installments and the loan, so only a committed twin makes it a duplicate
+                if (Boolean.TRUE.equals(committedRead.execute(
+                        status -> repaymentRepository.existsByTransactionId(request.transactionId())))) {
+                    throw new IllegalStateException("Duplicate transaction ID: " + request.transactionId());
+                }
+                throw e;
             }
+            transactionIdFilter.add(request.transactionId());
+
+            loanAccount.setNextDueInstallment(nextDueAfter(loanAccount, installments));
+            loanAccountRepository.save(loanAccount);
+            scheduleCache.evict(loanId);
 
-            throw new IllegalStateException("No due installment found to match the payment amount");
+            return ApiResponse.ok("Repayment applied successfully",
+                    new RepaymentResponse(describe(allocation), repayment.getId()));
         } catch (IllegalArgumentException | IllegalStateException | ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -136,31 +197,49 @@ public class RepaymentServiceImpl implements RepaymentService {
     }
 
     @Override
-    public ApiResponse<RepaymentHistoryResponse> getRepaymentHistory(Long loanId) {
+    public ApiResponse<RepaymentHistoryResponse> getRepaymentHistory(Long loanId, LocalDate from, LocalDate to,
+                                                                     String cursor, int size) {
         try {
             if (loanId == null || loanId <= 0) {
                 throw new IllegalArgumentException("Invalid loan ID");
             }
+            if (size < 1 || size > MAX_HISTORY_PAGE) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE);
+            }
+            LocalDate lower = from != null ? from : EARLIEST_DATE;
+            LocalDate upper = to != null ? to : LATEST_DATE;
+            if (lower.isAfter(upper)) {
+                throw new IllegalArgumentException("'from' must not be after 'to'");
+            }
+            if (!loanAccountRepository.existsById(loanId)) {
+                throw new ResourceNotFoundException("Loan not found with ID: " + loanId);
+            }
 
-            LoanAccount loanAccount = loanAccountRepository.findById(loanId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
-
-            List<Repayment> repayments = repaymentRepository
-                    .findByLoanAccountOrderByPaymentDateAsc(loanAccount);
+            // Seek past the last row already returned; a cursor from before 'from' just starts at 'from'
+            LocalDate afterDate = lower;
+            long afterId = 0;
+            if (cursor != null && !cursor.isBlank()) {
+                HistoryCursor decoded = HistoryCursor.decode(cursor);
+                if (!decoded.paymentDate().isBefore(lower)) {
+                    afterDate = decoded.paymentDate();
+                    afterId = decoded.id();
+                }
+            }
 
-            List<RepaymentHistory> repaymentDtos = repayments.stream()
-                    .map(r -> new RepaymentHistory(
-                            r.getId(),
-                            r.getAmount(),
-                            r.getPaymentDate(),
-                            r.getMode(),
-                            r.getTransactionId(),
-                            r.getInstallment().getInstallmentNumber()))
-                    .toList();
+            // One extra row tells whether another page follows
+            List<RepaymentHistory> rows = repaymentRepository.findHistoryPage(loanId, afterDate, afterId, upper,
+                    Limit.of(size + 1));
+            String nextCursor = null;
+            if (rows.size() > size) {
+                rows = rows.subList(0, size);
+                RepaymentHistory last = rows.get(size - 1);
+                nextCursor = new HistoryCursor(last.paymentDate(), last.id()).encode();
+            }
 
             RepaymentHistoryResponse response = new RepaymentHistoryResponse(
                     "Repayment history retrieved",
-                    repaymentDtos);
+                    rows,
+                    nextCursor);
 
             return ApiResponse.ok("Repayment history fetched successfully", response);
 
@@ -170,4 +249,122 @@ public class RepaymentServiceImpl implements RepaymentService {
             throw new RuntimeException("Failed to fetch repayment history: " + e.getMessage(), e);
         }
     }
+
+    /** Position of a history row in (paymentDate, id) order, handed to clients as an opaque token. */
+    private record HistoryCursor(LocalDate paymentDate, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((paymentDate + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+                return new HistoryCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+        }
+    }
+
+    /**
+     * Unpaid installments from the next-due pointer on: every installment due by the payment date, then
+     * enough later ones to absorb the whole payment whatever the allocation order.
+     */
+    private List<Installment> loadInstallmentsToAllocate(LoanAccount loanAccount, LocalDate paymentDate, long budget) {
+        List<Installment> installments = new ArrayList<>();
+        // Loans from before the pointer existed get it initialised here
+        if (loanAccount.getNextDueInstallment() == null && scheduleService.getNextDueInstallment(loanAccount).isEmpty()) {
+            return installments;
+        }
+        int from = loanAccount.getNextDueInstallment();
+        long covered = 0;
+        while (from <= loanAccount.getTenureMonths()) {
+            List<Installment> page = scheduleService.getInstallments(loanAccount, from, INSTALLMENT_PAGE);
+            for (Installment installment : page) {
+                if (installment.getStatus() == InstallmentStatus.PAID) {
+                    continue;
+                }
+                if (covered >= budget && installment.getDueDate().isAfter(paymentDate)) {
+                    return installments;
+                }
+                installments.add(installment);
+                covered += AllocationEngine.toCents(interestDue(installment) + principalDue(installment));
+            }
+            from += INSTALLMENT_PAGE;
+        }
+        return installments;
+    }
+
+    private static double interestDue(Installment installment) {
+        return installment.getInterestComponent() - installment.getInterestPaid();
+    }
+
+    private static double principalDue(Installment installment) {
+        return installment.getPrincipalComponent() - (installment.getPaidAmount() - installment.getInterestPaid());
+    }
+
+    /**
+     * Clearing every charge is one bulk update; only a partial payment has to load the charges, to find
+     * the oldest ones it covers.
+     */
+    private void settleCharges(LoanAccount loanAccount, long cents, boolean all) {
+        if (all) {
+            chargeRepository.settleAllOutstanding(loanAccount.getId());
+            loanAccount.setOutstandingCharges(0.0);
+            return;
+        }
+        List<Charge> touched = new ArrayList<>();
+        long remaining = cents;
+        for (Charge charge : chargeRepository.findByLoanAccountAndIsPaidFalseOrderByAppliedDateAscIdAsc(loanAccount)) {
+            if (remaining <= 0) {
+                break;
+            }
+            long due = AllocationEngine.toCents(charge.getAmount() - charge.getPaidAmount());
+            long paid = Math.min(remaining, due);
+            charge.setPaidAmount(paid == due ? charge.getAmount() : charge.getPaidAmount() + paid / 100.0);
+            charge.setPaid(paid == due);
+            touched.add(charge);
+            remaining -= paid;
+        }
+        chargeRepository.saveAll(touched);
+        long left = AllocationEngine.toCents(loanAccount.getOutstandingCharges()) - cents;
+        loanAccount.setOutstandingCharges(left / 100.0);
+    }
+
+    // Settled parts take the exact component value, so paid installments carry no rounding residue
+    private static void settle(Installment installment, long interestCents, boolean interestSettled,
+                               long principalCents, boolean principalSettled) {
+        double interestPaid = interestSettled ? installment.getInterestComponent()
+                : installment.getInterestPaid() + interestCents / 100.0;
+        double principalPaid = principalSettled ? installment.getPrincipalComponent()
+                : installment.getPaidAmount() - installment.getInterestPaid() + principalCents / 100.0;
+        installment.setInterestPaid(interestPaid);
+        installment.setPaidAmount(interestPaid + principalPaid);
+        installment.setStatus(interestSettled && principalSettled ? InstallmentStatus.PAID : InstallmentStatus.PARTIALLY_PAID);
+    }
+
+    // Lowest installment still open; everything past the loaded window is untouched and still unpaid
+    private static int nextDueAfter(LoanAccount loanAccount, List<Installment> installments) {
+        for (Installment installment : installments) {
+            if (installment.getStatus() != InstallmentStatus.PAID) {
+                return installment.getInstallmentNumber();
+            }
+        }
+        return installments.isEmpty() ? loanAccount.getNextDueInstallment()
+                : installments.get(installments.size() - 1).getInstallmentNumber() + 1;
+    }
+
+    private static String describe(Allocation allocation) {
+        StringBuilder message = new StringBuilder("Repayment allocated:");
+        for (AllocationBucket bucket : AllocationBucket.values()) {
+            if (allocation.total(bucket) > 0) {
+                message.append(' ').append(bucket.name().toLowerCase())
+                        .append(" ₹").append(BigDecimal.valueOf(allocation.total(bucket), 2)).append(',');
+            }
+        }
+        message.setLength(message.length() - 1);
+        return message.toString();
+    }
 }
@@ -1,22 +1,33 @@
 package com.finance.loanms.service.impl;
 
+import com.finance.loanms.concurrency.LoanWrite;
 import com.finance.loanms.dto.ApiResponse;
 import com.finance.loanms.dto.response.ScheduleResponse;
 import com.finance.loanms.exception.ResourceNotFoundException;
 import com.finance.loanms.model.entity.Installment;
+import com.finance.loanms.model.entity.InterestRate;
 import com.finance.loanms.model.entity.LoanAccount;
 import com.finance.loanms.model.enumtype.InstallmentStatus;
 import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
 import com.finance.loanms.repository.InstallmentRepository;
 import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.schedule.engine.AmortizationEngine;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import com.finance.loanms.schedule.engine.AmortizationSchedule;
+import com.finance.loanms.schedule.engine.RateTable;
 import com.finance.loanms.service.ScheduleService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,10 +35,22 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     private final InstallmentRepository installmentRepository;
     private final LoanAccountRepository loanAccountRepository;
+    private final AmortizationMethod amortizationMethod;
+    private final ScheduleStorage storageMode;
+    private final ScheduleResponseCache scheduleCache;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ScheduleServiceImpl(InstallmentRepository installmentRepository, LoanAccountRepository loanAccountRepository) {
+    public ScheduleServiceImpl(InstallmentRepository installmentRepository, LoanAccountRepository loanAccountRepository,
+                               @Value("${schedule.amortization.method:FLAT}") AmortizationMethod amortizationMethod,
+                               @Value("${schedule.storage-mode:MATERIALIZED}") ScheduleStorage storageMode,
+                               ScheduleResponseCache scheduleCache, PlatformTransactionManager transactionManager) {
         this.installmentRepository = installmentRepository;
         this.loanAccountRepository = loanAccountRepository;
+        this.amortizationMethod = amortizationMethod;
+        this.storageMode = storageMode;
+        this.scheduleCache = scheduleCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public void generateSchedule(LoanAccount loanAccount) {
@@ -42,43 +65,22 @@ public class ScheduleServiceImpl implements ScheduleService {
                 throw new IllegalArgumentException("Tenure must be greater than 0");
             }
 
-            List<Installment> installments = new ArrayList<>();
-            double principal = loanAccount.getPrincipal();
-            int tenure = loanAccount.getTenureMonths();
-            double principalComponent = principal / tenure;
-
-            Map<Integer, Double> steppedRates = loanAccount.getInterestRate().getSteppedRates();
-            InterestType type = loanAccount.getInterestRate().getType();
-            LocalDate startDate = loanAccount.getStartDate();
+            loanAccount.setAmortizationMethod(amortizationMethod);
+            loanAccount.setScheduleStorage(storageMode);
+            loanAccount.setNextDueInstallment(1);
 
-            if (type == InterestType.STEP && (steppedRates == null || steppedRates.isEmpty())) {
-                throw new IllegalStateException("Stepped rates are required for STEP interest type");
+            if (storageMode == ScheduleStorage.VIRTUAL) {
+                // Only the terms are kept; installments are derived on read and stored once touched
+                rateTableFor(loanAccount);
+                return;
             }
+            AmortizationSchedule computed = computeSchedule(loanAccount);
 
+            // Entities are only built here, at the persistence boundary
+            int tenure = loanAccount.getTenureMonths();
+            List<Installment> installments = new ArrayList<>(tenure);
             for (int i = 1; i <= tenure; i++) {
-                double annualRate;
-
-                if (type == InterestType.STEP) {
-                    annualRate = steppedRates.get(i);
-                } else {
-                    annualRate = loanAccount.getInterestRate().getBaseRate();
-                }
-
-                double monthlyRate = annualRate / 12 / 100;
-                double interestComponent = principal * monthlyRate;
-                double totalAmount = principalComponent + interestComponent;
-
-                Installment installment = Installment.builder()
-                        .loanAccount(loanAccount)
-                        .installmentNumber(i)
-                        .dueDate(startDate.plusMonths(i))
-                        .principalComponent(principalComponent)
-                        .interestComponent(interestComponent)
-                        .totalAmount(totalAmount)
-                        .status(InstallmentStatus.DUE)
-                        .build();
-
-                installments.add(installment);
+                installments.add(toInstallment(loanAccount, computed, i));
             }
             installmentRepository.saveAll(installments);
         } catch (IllegalArgumentException | IllegalStateException e) {
@@ -91,23 +93,9 @@ public class ScheduleServiceImpl implements ScheduleService {
     @Override
     public ApiResponse<ScheduleResponse> getSchedule(Long loanId) {
         try {
-            LoanAccount loanAccount = loanAccountRepository.findById(loanId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
-
-            List<Installment> installments = installmentRepository.findByLoanAccountOrderByInstallmentNumber(loanAccount);
-
-            List<ScheduleResponse.InstallmentEntry> scheduleEntries = installments.stream()
-                    .map(installment -> new ScheduleResponse.InstallmentEntry(
-                            installment.getInstallmentNumber(),
-                            installment.getDueDate(),
-                            installment.getPrincipalComponent(),
-                            installment.getInterestComponent(),
-                            installment.getTotalAmount(),
-                            installment.getStatus().toString()
-                    ))
-                    .collect(Collectors.toList());
-
-            ScheduleResponse response = new ScheduleResponse(loanId, scheduleEntries);
+            // Cache hits never open a transaction or touch the database
+            ScheduleResponse response = scheduleCache.get(loanId,
+                    () -> readOnlyTransaction.execute(status -> buildSchedule(loanId)));
             return ApiResponse.ok("Schedule retrieved successfully", response);
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -116,6 +104,27 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
     }
 
+    private ScheduleResponse buildSchedule(Long loanId) {
+        LoanAccount loanAccount = loanAccountRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
+
+        List<Installment> installments = getInstallments(loanAccount);
+
+        List<ScheduleResponse.InstallmentEntry> scheduleEntries = installments.stream()
+                .map(installment -> new ScheduleResponse.InstallmentEntry(
+                        installment.getInstallmentNumber(),
+                        installment.getDueDate(),
+                        installment.getPrincipalComponent(),
+                        installment.getInterestComponent(),
+                        installment.getTotalAmount(),
+                        installment.getStatus().toString()
+                ))
+                .collect(Collectors.toList());
+
+        return new ScheduleResponse(loanId, scheduleEntries);
+    }
+
+    @LoanWrite
     @Transactional
     @Override
     public ApiResponse<ScheduleResponse> updateScheduleAfterRateChange(Long loanId, double newRate, int effectiveFromInstallment) {
@@ -130,26 +139,53 @@ public class ScheduleServiceImpl implements ScheduleService {
             LoanAccount loanAccount = loanAccountRepository.findById(loanId)
                     .orElseThrow(() -> new ResourceNotFoundException("Loan not found with ID: " + loanId));
 
+            boolean virtual = isVirtual(loanAccount);
+            if (virtual) {
+                if (effectiveFromInstallment > loanAccount.getTenureMonths()) {
+                    throw new ResourceNotFoundException("No installments found from installment number: " + effectiveFromInstallment);
+                }
+                // Derived installments before the change must keep the amounts they were derived with
+                List<Installment> unchanged = getInstallments(loanAccount).stream()
+                        .filter(installment -> installment.getId() == null
+                                && installment.getInstallmentNumber() < effectiveFromInstallment)
+                        .toList();
+                installmentRepository.saveAll(unchanged);
+            }
+
             List<Installment> installmentsToUpdate = installmentRepository
                     .findByLoanAccountAndInstallmentNumberGreaterThanEqual(loanAccount, effectiveFromInstallment);
 
-            if (installmentsToUpdate.isEmpty()) {
+            if (installmentsToUpdate.isEmpty() && !virtual) {
                 throw new ResourceNotFoundException("No installments found from installment number: " + effectiveFromInstallment);
             }
 
-            double newMonthlyInterestRate = newRate / 12 / 100;
-            
+            double openingBalance = loanAccount.getPrincipal()
+                    - installmentRepository.sumPrincipalComponentBefore(loanAccount, effectiveFromInstallment);
+            AmortizationSchedule repriced = new AmortizationSchedule(loanAccount.getTenureMonths());
+            AmortizationEngine.computeRange(methodFor(loanAccount), loanAccount.getPrincipal(), loanAccount.getTenureMonths(),
+                    RateTable.flat(newRate), loanAccount.getStartDate(), effectiveFromInstallment, openingBalance, repriced);
+
             for (Installment installment : installmentsToUpdate) {
-                double newInterestComponent = loanAccount.getPrincipal() * newMonthlyInterestRate;
-                double newTotalAmount = installment.getPrincipalComponent() + newInterestComponent;
-                
-                installment.setInterestComponent(newInterestComponent);
-                installment.setTotalAmount(newTotalAmount);
+                int number = installment.getInstallmentNumber();
+                installment.setPrincipalComponent(repriced.principalComponent(number));
+                installment.setInterestComponent(repriced.interestComponent(number));
+                installment.setTotalAmount(repriced.totalAmount(number));
             }
 
             installmentRepository.saveAll(installmentsToUpdate);
-            loanAccount.getInterestRate().setBaseRate(newRate);
+            InterestRate interestRate = loanAccount.getInterestRate();
+            interestRate.setBaseRate(newRate);
+            if (virtual) {
+                // Record the change in the terms so later installments derive at the new rate
+                if (interestRate.getType() == InterestType.STEP) {
+                    interestRate.getSteppedRates().keySet().removeIf(number -> number >= effectiveFromInstallment);
+                    interestRate.getSteppedRates().put(effectiveFromInstallment, newRate);
+                }
+                loanAccount.setRateResetInstallment(effectiveFromInstallment);
+                loanAccount.setRateResetBalance(openingBalance);
+            }
             loanAccountRepository.save(loanAccount);
+            scheduleCache.evict(loanId);
 
             return getSchedule(loanId);
         } catch (IllegalArgumentException | ResourceNotFoundException e) {
@@ -159,6 +195,141 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
     }
 
+    @Override
+    public List<Installment> getInstallments(LoanAccount loanAccount) {
+        List<Installment> stored = installmentRepository.findByLoanAccountOrderByInstallmentNumberAsc(loanAccount);
+        int tenure = loanAccount.getTenureMonths();
+        if (!isVirtual(loanAccount) || stored.size() >= tenure) {
+            return stored;
+        }
+
+        AmortizationSchedule computed = computeSchedule(loanAccount);
+        List<Installment> installments = new ArrayList<>(tenure);
+        int next = 0;
+        for (int i = 1; i <= tenure; i++) {
+            if (next < stored.size() && stored.get(next).getInstallmentNumber() == i) {
+                installments.add(stored.get(next++));
+            } else {
+                installments.add(toInstallment(loanAccount, computed, i));
+            }
+        }
+        return installments;
+    }
+
+    @Override
+    public List<Installment> getInstallments(LoanAccount loanAccount, int fromNumber, int count) {
+        int toNumber = Math.min(fromNumber + count - 1, loanAccount.getTenureMonths());
+        if (fromNumber > toNumber) {
+            return List.of();
+        }
+        List<Installment> stored = installmentRepository.findByLoanAccountIdAndInstallmentNumberBetweenOrderByInstallmentNumberAsc(
+                loanAccount.getId(), fromNumber, toNumber);
+        if (!isVirtual(loanAccount) || stored.size() > toNumber - fromNumber) {
+            return stored;
+        }
+
+        AmortizationSchedule computed = computeSchedule(loanAccount);
+        List<Installment> installments = new ArrayList<>(toNumber - fromNumber + 1);
+        int next = 0;
+        for (int i = fromNumber; i <= toNumber; i++) {
+            if (next < stored.size() && stored.get(next).getInstallmentNumber() == i) {
+                installments.add(stored.get(next++));
+            } else {
+                installments.add(toInstallment(loanAccount, computed, i));
+            }
+        }
+        return installments;
+    }
+
+    @Override
+    public boolean hasUnpaidInstallments(LoanAccount loanAccount) {
+        if (loanAccount.getNextDueInstallment() != null) {
+            return loanAccount.getNextDueInstallment() <= loanAccount.getTenureMonths();
+        }
+        if (installmentRepository.existsByLoanAccountIdAndStatusNot(loanAccount.getId(), InstallmentStatus.PAID)) {
+            return true;
+        }
+        // Installments of a virtual schedule that were never stored are still due
+        return isVirtual(loanAccount)
+                && installmentRepository.countByLoanAccount(loanAccount) < loanAccount.getTenureMonths();
+    }
+
+    @Override
+    public Optional<Installment> getNextDueInstallment(LoanAccount loanAccount) {
+        Integer next = loanAccount.getNextDueInstallment();
+        if (next == null) {
+            return findNextDueWithoutPointer(loanAccount);
+        }
+        if (next > loanAccount.getTenureMonths()) {
+            return Optional.empty();
+        }
+        Optional<Installment> stored = installmentRepository.findByLoanAccountIdAndInstallmentNumber(loanAccount.getId(), next);
+        if (stored.isPresent() || !isVirtual(loanAccount)) {
+            return stored;
+        }
+        return Optional.of(toInstallment(loanAccount, computeSchedule(loanAccount), next));
+    }
+
+    // Loans created before the pointer existed: find the first unpaid installment once and remember it
+    private Optional<Installment> findNextDueWithoutPointer(LoanAccount loanAccount) {
+        Optional<Installment> next = isVirtual(loanAccount)
+                ? getInstallments(loanAccount).stream()
+                        .filter(installment -> installment.getStatus() != InstallmentStatus.PAID)
+                        .findFirst()
+                : installmentRepository.findFirstByLoanAccountIdAndStatusNotOrderByInstallmentNumberAsc(
+                        loanAccount.getId(), InstallmentStatus.PAID);
+        loanAccount.setNextDueInstallment(next.map(Installment::getInstallmentNumber)
+                .orElse(loanAccount.getTenureMonths() + 1));
+        return next;
+    }
+
+    private AmortizationSchedule computeSchedule(LoanAccount loanAccount) {
+        AmortizationMethod method = methodFor(loanAccount);
+        double principal = loanAccount.getPrincipal();
+        int tenure = loanAccount.getTenureMonths();
+        RateTable rates = rateTableFor(loanAccount);
+
+        AmortizationSchedule schedule = AmortizationEngine.compute(method, principal, tenure, rates, loanAccount.getStartDate());
+        Integer resetFrom = loanAccount.getRateResetInstallment();
+        if (resetFrom != null && resetFrom > 1) {
+            AmortizationEngine.computeRange(method, principal, tenure, rates, loanAccount.getStartDate(),
+                    resetFrom, loanAccount.getRateResetBalance(), schedule);
+        }
+        return schedule;
+    }
+
+    private Installment toInstallment(LoanAccount loanAccount, AmortizationSchedule computed, int installmentNumber) {
+        return Installment.builder()
+                .loanAccount(loanAccount)
+                .installmentNumber(installmentNumber)
+                .dueDate(computed.dueDate(installmentNumber))
+                .principalComponent(computed.principalComponent(installmentNumber))
+                .interestComponent(computed.interestComponent(installmentNumber))
+                .totalAmount(computed.totalAmount(installmentNumber))
+                .status(InstallmentStatus.DUE)
+                .build();
+    }
+
+    private boolean isVirtual(LoanAccount loanAccount) {
+        return loanAccount.getScheduleStorage() == ScheduleStorage.VIRTUAL;
+    }
+
+    private AmortizationMethod methodFor(LoanAccount loanAccount) {
+        return loanAccount.getAmortizationMethod() != null ? loanAccount.getAmortizationMethod() : amortizationMethod;
+    }
+
+    private RateTable rateTableFor(LoanAccount loanAccount) {
+        InterestRate interestRate = loanAccount.getInterestRate();
+        if (interestRate.getType() == InterestType.STEP) {
+            Map<Integer, Double> steppedRates = interestRate.getSteppedRates();
+            if (steppedRates == null || steppedRates.isEmpty()) {
+                throw new IllegalStateException("Stepped rates are required for STEP interest type");
+            }
+            return RateTable.fromSteps(steppedRates);
+        }
+        return RateTable.flat(interestRate.getBaseRate());
+    }
+
     // Helper method for updating schedule after rate change (original signature maintained)
     @Transactional
     public void updateScheduleAfterRateChange(LoanAccount loanAccount, double newRate, int effectiveFromInstallment) {
@@ -0,0 +1,122 @@
+package com.finance.loanms.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Groups concurrently submitted items into batches. A batch is cut when it reaches {@code maxSize} or
+ * {@code window} after its first item arrived, whichever comes first, and is handed to the sender on a
+ * virtual thread so several batches can be in flight. The sender must return one result per item, in order.
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final Function<List<I>, List<O>> sender;
+    private final int maxSize;
+    private final long windowNanos;
+    private final BlockingQueue<Pending<I, O>> queue;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+    private volatile boolean closed;
+
+    public MicroBatcher(String name, Function<List<I>, List<O>> sender, int maxSize, long windowMillis, int queueCapacity) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.sender = sender;
+        this.maxSize = maxSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.collector = Thread.ofPlatform().daemon().name(name + "-batcher").start(this::collect);
+    }
+
+    /** Queues the item; the future completes once its batch has been sent. */
+    public CompletableFuture<O> submit(I item) {
+        Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>());
+        if (closed || !queue.offer(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException("Batch queue is full or closed"));
+        }
+        return pending.result();
+    }
+
+    private void collect() {
+        List<Pending<I, O>> batch = new ArrayList<>(maxSize);
+        while (!closed) {
+            try {
+                batch = new ArrayList<>(maxSize);
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    // Take whatever is already waiting without sleeping, then wait out the window
+                    if (queue.drainTo(batch, maxSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending<I, O> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                List<Pending<I, O>> ready = batch;
+                senders.execute(() -> send(ready));
+                batch = List.of();
+            } catch (InterruptedException | RejectedExecutionException e) {
+                break;
+            }
+        }
+        RejectedExecutionException reason = new RejectedExecutionException("Batcher closed");
+        batch.forEach(pending -> pending.result().completeExceptionally(reason));
+        failPending(reason);
+    }
+
+    private void send(List<Pending<I, O>> batch) {
+        try {
+            List<I> items = new ArrayList<>(batch.size());
+            for (Pending<I, O> pending : batch) {
+                items.add(pending.item());
+            }
+            List<O> results = sender.apply(items);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " batch results but got "
+                        + (results == null ? 0 : results.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (Throwable t) {
+            log.debug("Batch of {} failed: {}", batch.size(), t.getMessage());
+            for (Pending<I, O> pending : batch) {
+                pending.result().completeExceptionally(t);
+            }
+        }
+    }
+
+    private void failPending(Throwable reason) {
+        Pending<I, O> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(reason);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+        senders.shutdown();
+        failPending(new RejectedExecutionException("Batcher closed"));
+    }
+
+    private record Pending<I, O>(I item, CompletableFuture<O> result) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.finance.loanms.util;
+
+import com.finance.loanms.repository.RepaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-check for repayment transaction IDs, so the duplicate check only reaches the database
+ * when an ID might already exist. Until the startup scan has finished every ID counts as "maybe".
+ * <p>
+ * The filter only knows IDs posted through this instance after the scan; the unique constraint on
+ * {@code Repayment.transactionId} remains the final guard.
+ */
+@Slf4j
+@Component
+public class TransactionIdFilter {
+
+    private final RepaymentRepository repaymentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final AtomicLong insertions = new AtomicLong();
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+    private volatile long capacity;
+
+    public TransactionIdFilter(RepaymentRepository repaymentRepository, PlatformTransactionManager transactionManager,
+                               @Value("${repayment.txn-filter.min-capacity:1000000}") long minimumCapacity,
+                               @Value("${repayment.txn-filter.fpp:0.01}") double falsePositiveRate) {
+        this.repaymentRepository = repaymentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /** False only when the ID has certainly never been posted. */
+    public boolean mightContain(String transactionId) {
+        return !ready || filter.mightContain(transactionId);
+    }
+
+    public void add(String transactionId) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(transactionId);
+        }
+        if (insertions.incrementAndGet() == capacity) {
+            log.warn("Transaction ID filter reached its capacity of {}; false positives will rise until the next restart", capacity);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long existing = repaymentRepository.count();
+        capacity = Math.max(minimumCapacity, existing * 2);
+        BloomFilter rebuilt = BloomFilter.create(capacity, falsePositiveRate);
+        // IDs posted while the scan runs go straight into the new filter
+        filter = rebuilt;
+        insertions.set(existing);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> transactionIds = repaymentRepository.streamAllTransactionIds()) {
+                transactionIds.forEach(rebuilt::put);
+            }
+        });
+        ready = true;
+        log.info("Transaction ID filter built from {} repayments ({} bits, {} hashes)",
+                existing, rebuilt.bitCount(), rebuilt.hashCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.finance.loanms.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ownership of background work shared between nodes through the database. Rows a node works on are
+ * stamped with its id and a lease expiry, which it keeps extending while it runs; another node may take
+ * a row over only once the lease has lapsed, or right away if the row carries its own id (it crashed
+ * and came back under a stable {@code app.node-id}).
+ */
+@Slf4j
+@Component
+public class WorkLease {
+
+    private final String nodeId;
+    private final Duration duration;
+    private final List<Consumer<LocalDateTime>> renewals = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService renewer;
+
+    public WorkLease(@Value("${app.node-id:}") String nodeId,
+                     @Value("${app.work-lease:PT2M}") Duration duration) {
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId.trim();
+        this.duration = duration;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("work-lease-renewal").factory());
+        // Renewing three times per lease rides out a missed or slow renewal
+        long period = Math.max(1, duration.toMillis() / 3);
+        renewer.scheduleWithFixedDelay(this::renewAll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /** Expiry for a lease taken or renewed now. */
+    public LocalDateTime expiry() {
+        return LocalDateTime.now().plus(duration);
+    }
+
+    /** Registers a renewal that extends every lease this node holds to the expiry it is given. */
+    public void onRenew(Consumer<LocalDateTime> renewal) {
+        renewals.add(renewal);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    private void renewAll() {
+        LocalDateTime until = expiry();
+        for (Consumer<LocalDateTime> renewal : renewals) {
+            try {
+                renewal.accept(until);
+            } catch (RuntimeException e) {
+                log.warn("Could not renew work leases of node {}", nodeId, e);
+            }
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
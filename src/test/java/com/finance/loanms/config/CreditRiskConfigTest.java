@@ -0,0 +1,94 @@
+package com.finance.loanms.config;
+
+import com.finance.loanms.risk.HedgedCreditRiskService;
+import com.finance.loanms.service.CreditRiskService;
+import com.finance.loanms.service.impl.EmbeddedModelCreditRiskService;
+import com.finance.loanms.service.impl.MLBasedCreditRiskService;
+import com.finance.loanms.service.impl.RuleBasedCreditRiskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CreditRiskConfigTest {
+
+    private final AtomicInteger mlBuilt = new AtomicInteger();
+    private final AtomicInteger embeddedBuilt = new AtomicInteger();
+
+    // Boot's conversion service turns the PT… properties into Durations, as in the application
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(CreditRiskConfig.class)
+            .withBean(RuleBasedCreditRiskService.class, () -> mock(RuleBasedCreditRiskService.class))
+            // Lazy like the @Lazy scorers they stand in for; each counts how often it was built
+            .withBean(MLBasedCreditRiskService.class, () -> {
+                mlBuilt.incrementAndGet();
+                return mock(MLBasedCreditRiskService.class);
+            }, definition -> definition.setLazyInit(true))
+            .withBean(EmbeddedModelCreditRiskService.class, () -> {
+                embeddedBuilt.incrementAndGet();
+                return mock(EmbeddedModelCreditRiskService.class);
+            }, definition -> definition.setLazyInit(true))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void hedgedShadowEngine_IsBuiltAlongsideAnotherLiveEngine() {
+        contextRunner.withPropertyValues("credit.risk.engine=rule", "credit.risk.shadow.engine=hedged")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(1, context.getBeansOfType(HedgedCreditRiskService.class).size());
+                    assertNotNull(context.getBean(CreditRiskService.class));
+                });
+    }
+
+    @Test
+    void ruleEngine_DoesNotBuildTheThreadedScorers() {
+        contextRunner.withPropertyValues("credit.risk.engine=rule")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertNotNull(context.getBean(CreditRiskService.class));
+                    assertEquals(0, mlBuilt.get());
+                    assertEquals(0, embeddedBuilt.get());
+                });
+    }
+
+    @Test
+    void embeddedShadowEngine_BuildsOnlyTheEmbeddedScorer() {
+        contextRunner.withPropertyValues("credit.risk.engine=rule", "credit.risk.shadow.engine=embedded")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(0, mlBuilt.get());
+                    assertEquals(1, embeddedBuilt.get());
+                });
+    }
+
+    @Test
+    void hedgedService_IsNotBuiltWhenNoEngineUsesIt() {
+        contextRunner.withPropertyValues("credit.risk.engine=rule", "credit.risk.shadow.engine=embedded")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertTrue(context.getBeansOfType(HedgedCreditRiskService.class).isEmpty());
+                });
+    }
+
+    @Test
+    void shadowEngineEqualToLiveEngine_FailsStartup() {
+        contextRunner.withPropertyValues("credit.risk.engine=ml", "credit.risk.shadow.engine= ML ")
+                .run(context -> {
+                    Throwable failure = context.getStartupFailure();
+                    assertNotNull(failure);
+                    while (failure.getCause() != null) {
+                        failure = failure.getCause();
+                    }
+                    assertEquals("credit.risk.shadow.engine must differ from credit.risk.engine, both are ml",
+                            failure.getMessage());
+                });
+    }
+}
@@ -2,8 +2,10 @@ package com.finance.loanms.controller;
 
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
@@ -11,10 +13,24 @@ import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Full integration test for Loan Account Flow.
@@ -23,8 +39,15 @@ import static org.hamcrest.Matchers.*;
  * - Uses RestAssured for HTTP calls & assertions
  * - Handles authentication flow automatically
  */
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.entity.QueuedRepayment;
+import com.finance.loanms.model.enumtype.QueuedRepaymentStatus;
 import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.repository.QueuedRepaymentRepository;
+import com.finance.loanms.risk.HedgedCreditRiskService;
 import com.finance.loanms.service.CreditRiskService;
+import com.finance.loanms.service.impl.RepaymentQueueServiceImpl;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -33,9 +56,21 @@ import static org.mockito.Mockito.when;
 @Testcontainers
 public class LoanAccountFlowIntegrationTest {
 
+    // Keeps transaction ids distinct when several repayments are sent in the same instant
+    private static final AtomicLong TRANSACTION_SEQUENCE = new AtomicLong();
+
     @MockBean
     private CreditRiskService creditRiskService;
 
+    @Autowired
+    private LoanAccountRepository loanAccountRepository;
+
+    @Autowired
+    private QueuedRepaymentRepository queuedRepaymentRepository;
+
+    @Autowired
+    private RepaymentQueueServiceImpl repaymentQueueService;
+
     @ServiceConnection
     @Container
     static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
@@ -198,6 +233,87 @@ public class LoanAccountFlowIntegrationTest {
                 .body("data.status", equalTo("ACTIVE"));
     }
 
+    @Test
+    void createLoans_MixedBatch_ReturnsPerItemResults() {
+        Long customerId = createTestCustomer();
+        String requestBody = String.format("""
+                [
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 750},
+                    {"customerId": 999999999, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 750},
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "monthlyIncome": 50000.0, "creditScore": 750}
+                ]
+                """, customerId);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(requestBody)
+                .when()
+                .post("/loans/batch")
+                .then()
+                .log().all()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.created", equalTo(1))
+                .body("data.rejected", equalTo(2))
+                .body("data.results[0].status", equalTo("CREATED"))
+                .body("data.results[0].loanId", notNullValue())
+                .body("data.results[1].message", containsString("Customer not found"))
+                .body("data.results[2].message", containsString("Interest rate is required"));
+    }
+
+    @Test
+    void createLoans_ScorerUnavailable_ReportsFailedNotRejected() {
+        // Credit score picks the outcome: the ML breaker's fallback, a hedged rule-based decline, or none at all
+        when(creditRiskService.assessRisk(any())).thenAnswer(invocation -> {
+            int creditScore = invocation.<CreateLoanRequest>getArgument(0).getCreditScore();
+            return switch (creditScore) {
+                case 700 -> RiskAssessment.builder().isApproved(false).riskScore(0.0)
+                        .reason("Risk assessment service unavailable (Fallback)").fallback(true).build();
+                case 710 -> RiskAssessment.builder().isApproved(false).riskScore(0.2)
+                        .reason("Rule-based decision, ML scoring unavailable: Debt too high").fallback(true)
+                        .source(HedgedCreditRiskService.BACKUP_SOURCE).build();
+                case 720 -> null;
+                default -> RiskAssessment.builder().isApproved(true).riskScore(0.9).reason("Approved by Mock").build();
+            };
+        });
+        Long customerId = createTestCustomer();
+        String requestBody = String.format("""
+                [
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 700},
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 710},
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 720},
+                    {"customerId": %1$d, "principal": 10000, "tenureMonths": 12, "interestType": "FIXED",
+                     "interestRate": 10, "monthlyIncome": 50000.0, "creditScore": 750}
+                ]
+                """, customerId);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(requestBody)
+                .when()
+                .post("/loans/batch")
+                .then()
+                .log().all()
+                .statusCode(200)
+                .body("data.created", equalTo(1))
+                .body("data.rejected", equalTo(1))
+                .body("data.failed", equalTo(2))
+                .body("data.results[0].status", equalTo("FAILED"))
+                .body("data.results[0].message", containsString("service unavailable"))
+                .body("data.results[1].status", equalTo("REJECTED"))
+                .body("data.results[1].message", containsString("Debt too high"))
+                .body("data.results[2].status", equalTo("FAILED"))
+                .body("data.results[3].status", equalTo("CREATED"));
+    }
+
     @Test
     void createLoanAccount_MissingInterestRateForFixed_ReturnsError() {
         Long customerId = createTestCustomer();
@@ -391,6 +507,550 @@ public class LoanAccountFlowIntegrationTest {
                 .body("data.status", equalTo("ACTIVE"));
     }
 
+    @Test
+    void getCustomer_WithLoan_ReturnsLoanSummaries() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 10000, 12, "FIXED", 10.0, null);
+
+        String customerIdentifier = given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/customers/" + customerId)
+                .then()
+                .log().all()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.loans", hasSize(1))
+                .body("data.loans[0].loanId", equalTo(loanId.intValue()))
+                .body("data.loans[0].status", equalTo("ACTIVE"))
+                .extract()
+                .path("data.customerId");
+
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/customers/customer-id/" + customerIdentifier)
+                .then()
+                .statusCode(200)
+                .body("data.loans[0].loanId", equalTo(loanId.intValue()));
+
+        given()
+                .header("Authorization", authToken)
+                .queryParam("size", 1000)
+                .when()
+                .get("/customers")
+                .then()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.content.find { it.id == " + customerId + " }.loans", hasSize(1));
+    }
+
+    @Test
+    void applyRepayment_PartialThenRemainder_SettlesInstallment() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        String firstDueDate = scheduleField(loanId, "data.schedule[0].dueDate");
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+
+        // Paid on the due date: interest of the month first, the rest to principal
+        repay(loanId, 500.00, firstDueDate)
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.message", equalTo("Repayment allocated: interest ₹100.00, principal ₹400.00"));
+        assertEquals("PARTIALLY_PAID", scheduleField(loanId, "data.schedule[0].status"));
+
+        repay(loanId, Math.round((emiAmount - 500.00) * 100) / 100.0, firstDueDate)
+                .statusCode(200)
+                .body("success", equalTo(true));
+        assertEquals("PAID", scheduleField(loanId, "data.schedule[0].status"));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[1].status"));
+    }
+
+    @Test
+    void applyRepayment_MoreThanOutstanding_ReturnsError() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+
+        repay(loanId, Math.round(emiAmount * 12 * 100) / 100.0 + 100, LocalDate.now().toString())
+                .statusCode(400)
+                .body("success", equalTo(false))
+                .body("message", containsString("Payment exceeds the amount outstanding"));
+
+        // Nothing was booked
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[0].status"));
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/" + loanId + "/repayments")
+                .then()
+                .statusCode(200)
+                .body("data.repayments", hasSize(0));
+    }
+
+    @Test
+    void applyRepayment_CoveringPartOfACharge_LeavesTheRestOutstanding() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+
+        addCharge(loanId, "LATE_FEE", 300.00, LocalDate.now().toString());
+
+        repay(loanId, 120.00, LocalDate.now().toString())
+                .statusCode(200)
+                .body("data.message", equalTo("Repayment allocated: charges ₹120.00"));
+
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/" + loanId + "/charges")
+                .then()
+                .statusCode(200)
+                .body("data.totalCharges", equalTo(300.0f))
+                .body("data.outstandingCharges", equalTo(180.0f));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[0].status"));
+    }
+
+    @Test
+    void outstandingCharges_TracksAddsRemovalsAndPayments() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        String today = LocalDate.now().toString();
+
+        Long lateFeeId = addCharge(loanId, "LATE_FEE", 300.10, today);
+        Long legalFeeId = addCharge(loanId, "LEGAL_FEE", 200.20, today);
+        assertOutstandingCharges(loanId, 500.30f);
+
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .delete("/loans/" + loanId + "/charges/" + legalFeeId)
+                .then()
+                .statusCode(200);
+        assertOutstandingCharges(loanId, 300.10f);
+
+        repay(loanId, 100.05, today).statusCode(200);
+        assertOutstandingCharges(loanId, 200.05f);
+
+        // Removing a part-paid charge takes off only what is still owed on it
+        addCharge(loanId, "BOUNCE_CHARGE", 50.00, today);
+        assertOutstandingCharges(loanId, 250.05f);
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .delete("/loans/" + loanId + "/charges/" + lateFeeId)
+                .then()
+                .statusCode(200);
+        assertOutstandingCharges(loanId, 50.00f);
+
+        repay(loanId, 50.00, today)
+                .statusCode(200)
+                .body("data.message", equalTo("Repayment allocated: charges ₹50.00"));
+        assertOutstandingCharges(loanId, 0.0f);
+    }
+
+    @Test
+    void applyRepayment_BeforeDueDate_GoesToFutureInstallment() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+        String roundedEmi = String.format("%.2f", emiAmount);
+
+        repay(loanId, Double.parseDouble(roundedEmi), LocalDate.now().toString())
+                .statusCode(200)
+                .body("data.message", equalTo("Repayment allocated: future ₹" + roundedEmi));
+        assertEquals("PAID", scheduleField(loanId, "data.schedule[0].status"));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[1].status"));
+    }
+
+    @Test
+    void rateReset_FloatingLoan_RepricesFutureInstallments() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FLOATING", 10.0, null);
+
+        Integer jobId = given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(Map.of("newRate", 12.0, "effectiveDate", LocalDate.now().toString()))
+                .when()
+                .post("/loans/rate-resets")
+                .then()
+                .log().all()
+                .statusCode(202)
+                .body("success", equalTo(true))
+                .body("data.jobId", notNullValue())
+                .extract()
+                .path("data.jobId");
+
+        assertEquals("COMPLETED", awaitStatus("/loans/rate-resets/" + jobId, "COMPLETED", "FAILED"));
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/rate-resets/" + jobId)
+                .then()
+                .statusCode(200)
+                .body("data.failedChunks", equalTo(0))
+                .body("data.loansRepriced", greaterThanOrEqualTo(1));
+
+        // Flat interest on the original principal at the new rate
+        assertEquals(120.0, ((Number) scheduleField(loanId, "data.schedule[0].interestComponent")).doubleValue());
+        assertEquals(120.0, ((Number) scheduleField(loanId, "data.schedule[11].interestComponent")).doubleValue());
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(Map.of("newRate", -1.0, "effectiveDate", LocalDate.now().toString()))
+                .when()
+                .post("/loans/rate-resets")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void rateReset_PartPaidInstallment_KeepsItsAmounts() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FLOATING", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+        repay(loanId, 100.00, LocalDate.now().toString()).statusCode(200);
+        assertEquals("PARTIALLY_PAID", scheduleField(loanId, "data.schedule[0].status"));
+
+        // A rate cut would otherwise push the installment's interest below what was already paid
+        Integer jobId = given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(Map.of("newRate", 6.0, "effectiveDate", LocalDate.now().toString()))
+                .when()
+                .post("/loans/rate-resets")
+                .then()
+                .statusCode(202)
+                .extract()
+                .path("data.jobId");
+        assertEquals("COMPLETED", awaitStatus("/loans/rate-resets/" + jobId, "COMPLETED", "FAILED"));
+
+        assertEquals(100.0, ((Number) scheduleField(loanId, "data.schedule[0].interestComponent")).doubleValue());
+        assertEquals(60.0, ((Number) scheduleField(loanId, "data.schedule[1].interestComponent")).doubleValue());
+
+        // The rest of the original installment settles it exactly and nothing spills over
+        repay(loanId, Math.round((emiAmount - 100.00) * 100) / 100.0, LocalDate.now().toString())
+                .statusCode(200);
+        assertEquals("PAID", scheduleField(loanId, "data.schedule[0].status"));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[1].status"));
+    }
+
+    @Test
+    void exportRepayments_DateRange_StreamsCsvRows() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        String today = LocalDate.now().toString();
+        repay(loanId, 500.00, today).statusCode(200);
+
+        String csv = given()
+                .header("Authorization", authToken)
+                .queryParam("from", today)
+                .queryParam("to", today)
+                .when()
+                .get("/repayments/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .header("Content-Disposition", containsString("repayments-" + today + "-" + today + ".csv"))
+                .extract()
+                .asString();
+
+        assertTrue(csv.startsWith("repaymentId,loanId,installmentNumber,amount,paymentDate,mode,transactionId\n"));
+        assertTrue(csv.lines().anyMatch(line -> line.contains("," + loanId + ",1,")
+                && line.contains(today + ",UPI,TXN-" + loanId + "-")), csv);
+
+        given()
+                .header("Authorization", authToken)
+                .queryParam("from", today)
+                .queryParam("to", LocalDate.now().minusDays(1).toString())
+                .when()
+                .get("/repayments/export")
+                .then()
+                .statusCode(400)
+                .body("message", equalTo("A valid date range is required"));
+    }
+
+    @Test
+    void exportSchedule_Ndjson_StreamsOneLinePerInstallment() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+
+        String ndjson = given()
+                .header("Authorization", authToken)
+                .queryParam("format", "ndjson")
+                .when()
+                .get("/loans/" + loanId + "/schedule/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract()
+                .asString();
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(12, lines.size());
+        assertTrue(lines.get(0).contains("\"installmentNumber\":1"), lines.get(0));
+        assertTrue(lines.get(11).contains("\"installmentNumber\":12"), lines.get(11));
+
+        given()
+                .header("Authorization", authToken)
+                .queryParam("format", "xml")
+                .when()
+                .get("/loans/" + loanId + "/schedule/export")
+                .then()
+                .statusCode(400)
+                .body("message", equalTo("Unsupported export format: xml"));
+    }
+
+    @Test
+    void quote_TenureGrid_ReturnsOneQuotePerTenure() {
+        Map<String, Object> quoteBody = Map.of(
+                "principal", 12000,
+                "tenures", List.of(12, 24),
+                "rates", List.of(10.0),
+                "interestTypes", List.of("FIXED"),
+                "methods", List.of("FLAT"),
+                "includeSchedule", true);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(quoteBody)
+                .when()
+                .post("/loans/quote")
+                .then()
+                .log().all()
+                .statusCode(200)
+                .body("success", equalTo(true))
+                .body("data.principal", equalTo(12000.0f))
+                .body("data.quotes", hasSize(2))
+                .body("data.quotes.find { it.tenureMonths == 12 }.firstInstallment", equalTo(1100.0f))
+                .body("data.quotes.find { it.tenureMonths == 12 }.totalInterest", equalTo(1200.0f))
+                .body("data.quotes.find { it.tenureMonths == 12 }.totalPayable", equalTo(13200.0f))
+                .body("data.quotes.find { it.tenureMonths == 12 }.schedule", hasSize(12))
+                .body("data.quotes.find { it.tenureMonths == 24 }.totalInterest", equalTo(2400.0f))
+                .body("data.quotes.find { it.tenureMonths == 24 }.schedule", hasSize(24));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(Map.of("principal", 12000, "tenures", List.of(), "rates", List.of(10.0)))
+                .when()
+                .post("/loans/quote")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void applyRepayment_Concurrently_EachPaymentAppliedOnce() throws Exception {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+        double roundedEmi = Math.round(emiAmount * 100) / 100.0;
+        String today = LocalDate.now().toString();
+        int payments = 6;
+
+        ExecutorService pool = Executors.newFixedThreadPool(payments);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < payments; i++) {
+                statuses.add(pool.submit(() -> {
+                    start.await();
+                    return repay(loanId, roundedEmi, today).extract().statusCode();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, status.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<String> transactionIds = given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/" + loanId + "/repayments")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("data.repayments.transactionId");
+        assertEquals(payments, transactionIds.size());
+        assertEquals(payments, Set.copyOf(transactionIds).size());
+
+        List<String> installmentStatuses = scheduleField(loanId, "data.schedule.status");
+        assertEquals(Collections.nCopies(payments, "PAID"), installmentStatuses.subList(0, payments));
+        assertEquals("DUE", installmentStatuses.get(payments));
+        assertEquals(payments + 1, loanAccountRepository.findById(loanId).orElseThrow().getNextDueInstallment());
+    }
+
+    @Test
+    void applyRepaymentAsync_Accepted_IsAppliedAndResendReturnsSameTrackingId() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+        double roundedEmi = Math.round(emiAmount * 100) / 100.0;
+        String transactionId = newTransactionId(loanId);
+
+        Integer trackingId = repay(loanId, roundedEmi, LocalDate.now().toString(), transactionId, true)
+                .statusCode(202)
+                .body("message", equalTo("Repayment accepted"))
+                .body("data.loanId", equalTo(loanId.intValue()))
+                .body("data.transactionId", equalTo(transactionId))
+                .extract()
+                .path("data.trackingId");
+
+        assertEquals("APPLIED", awaitStatus("/repayments/status/" + trackingId, "APPLIED", "REJECTED", "FAILED"));
+        assertEquals("PAID", scheduleField(loanId, "data.schedule[0].status"));
+
+        // A gateway retry of the same payment is answered from the queue, not applied again
+        repay(loanId, roundedEmi, LocalDate.now().toString(), transactionId, true)
+                .statusCode(202)
+                .body("message", equalTo("Repayment already accepted"))
+                .body("data.trackingId", equalTo(trackingId))
+                .body("data.status", equalTo("APPLIED"));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[1].status"));
+    }
+
+    @Test
+    void applyRepaymentAsync_ResendAfterFailure_RequeuesTheEntry() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        String transactionId = newTransactionId(loanId);
+        // An entry whose first attempt failed on an infrastructure error
+        QueuedRepayment failed = queuedRepaymentRepository.save(QueuedRepayment.builder()
+                .loanId(loanId)
+                .amountPaid(500.00)
+                .paymentDate(LocalDate.now())
+                .mode("UPI")
+                .transactionId(transactionId)
+                .status(QueuedRepaymentStatus.FAILED)
+                .message("Connection reset")
+                .build());
+
+        repay(loanId, 500.00, LocalDate.now().toString(), transactionId, true)
+                .statusCode(202)
+                .body("message", equalTo("Repayment accepted"))
+                .body("data.trackingId", equalTo(failed.getId().intValue()));
+
+        assertEquals("APPLIED", awaitStatus("/repayments/status/" + failed.getId(), "APPLIED", "REJECTED", "FAILED"));
+        assertEquals("PARTIALLY_PAID", scheduleField(loanId, "data.schedule[0].status"));
+    }
+
+    @Test
+    void resumePending_LeavesEntriesOfLiveNodesAlone() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        QueuedRepayment held = queuedRepaymentRepository.save(processingEntry(loanId, LocalDateTime.now().plusMinutes(10)));
+        QueuedRepayment abandoned = queuedRepaymentRepository.save(processingEntry(loanId, LocalDateTime.now().minusMinutes(1)));
+
+        repaymentQueueService.resumePending();
+
+        assertEquals("APPLIED", awaitStatus("/repayments/status/" + abandoned.getId(), "APPLIED", "REJECTED", "FAILED"));
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/repayments/status/" + held.getId())
+                .then()
+                .statusCode(200)
+                .body("data.status", equalTo("PROCESSING"));
+        assertEquals("PARTIALLY_PAID", scheduleField(loanId, "data.schedule[0].status"));
+    }
+
+    // An entry another node took and holds the lease on until leaseExpiresAt
+    private static QueuedRepayment processingEntry(Long loanId, LocalDateTime leaseExpiresAt) {
+        return QueuedRepayment.builder()
+                .loanId(loanId)
+                .amountPaid(500.00)
+                .paymentDate(LocalDate.now())
+                .mode("UPI")
+                .transactionId(newTransactionId(loanId))
+                .status(QueuedRepaymentStatus.PROCESSING)
+                .owner("other-node")
+                .leaseExpiresAt(leaseExpiresAt)
+                .build();
+    }
+
+    @Test
+    void applyRepaymentAsync_MoreThanOutstanding_IsReportedRejected() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        double emiAmount = ((Number) scheduleField(loanId, "data.schedule[0].totalAmount")).doubleValue();
+
+        Integer trackingId = repay(loanId, Math.round(emiAmount * 12 * 100) / 100.0 + 100,
+                LocalDate.now().toString(), newTransactionId(loanId), true)
+                .statusCode(202)
+                .extract()
+                .path("data.trackingId");
+
+        assertEquals("REJECTED", awaitStatus("/repayments/status/" + trackingId, "APPLIED", "REJECTED", "FAILED"));
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/repayments/status/" + trackingId)
+                .then()
+                .statusCode(200)
+                .body("data.message", containsString("Payment exceeds the amount outstanding"));
+        assertEquals("DUE", scheduleField(loanId, "data.schedule[0].status"));
+    }
+
+    @Test
+    void getRepaymentHistory_Paged_ReturnsEveryRowOnce() {
+        Long customerId = createTestCustomer();
+        Long loanId = createTestLoan(customerId, 12000, 12, "FIXED", 10.0, null);
+        // Two payments share each of the first two dates, so pages also split on the id tie-break
+        LocalDate base = LocalDate.now().minusDays(10);
+        for (int offset : new int[]{0, 0, 1, 1, 2, 3, 4}) {
+            repay(loanId, 100.00, base.plusDays(offset).toString()).statusCode(200);
+        }
+
+        List<Integer> allIds = historyPage(loanId, Map.of("size", 100))
+                .body("data.nextCursor", nullValue())
+                .extract()
+                .path("data.repayments.id");
+        assertEquals(7, allIds.size());
+
+        List<Integer> pagedIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Map<String, Object> params = cursor == null ? Map.of("size", 3) : Map.of("size", 3, "cursor", cursor);
+            ValidatableResponse page = historyPage(loanId, params);
+            List<Integer> ids = page.extract().path("data.repayments.id");
+            assertTrue(ids.size() <= 3);
+            pagedIds.addAll(ids);
+            cursor = page.extract().path("data.nextCursor");
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        assertEquals(allIds, pagedIds);
+
+        historyPage(loanId, Map.of("from", base.plusDays(1).toString(), "to", base.plusDays(2).toString()))
+                .body("data.repayments", hasSize(3))
+                .body("data.repayments.paymentDate", everyItem(
+                        anyOf(equalTo(base.plusDays(1).toString()), equalTo(base.plusDays(2).toString()))));
+
+        given()
+                .header("Authorization", authToken)
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/loans/" + loanId + "/repayments")
+                .then()
+                .statusCode(400)
+                .body("message", equalTo("Invalid history cursor"));
+    }
+
+    private ValidatableResponse historyPage(Long loanId, Map<String, ?> params) {
+        return given()
+                .header("Authorization", authToken)
+                .queryParams(params)
+                .when()
+                .get("/loans/" + loanId + "/repayments")
+                .then()
+                .statusCode(200);
+    }
+
     private Long createTestCustomer() {
         String uniqueEmail = String.format("customer%d@test.com", System.currentTimeMillis());
         String customerRequest = String.format("""
@@ -472,6 +1132,98 @@ public class LoanAccountFlowIntegrationTest {
         return sb.toString();
     }
 
+    private ValidatableResponse repay(Long loanId, double amount, String paymentDate) {
+        return repay(loanId, amount, paymentDate, newTransactionId(loanId), false);
+    }
+
+    private ValidatableResponse repay(Long loanId, double amount, String paymentDate, String transactionId,
+                                      boolean async) {
+        String paymentBody = String.format("""
+                {
+                    "paymentDate": "%s",
+                    "amountPaid": %.2f,
+                    "mode": "UPI",
+                    "transactionId": "%s"
+                }
+                """, paymentDate, amount, transactionId);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .queryParam("async", async)
+                .body(paymentBody)
+                .when()
+                .post("/loans/" + loanId + "/repayments")
+                .then()
+                .log().all();
+    }
+
+    private static String newTransactionId(Long loanId) {
+        return "TXN-" + loanId + "-" + System.nanoTime() + "-" + TRANSACTION_SEQUENCE.incrementAndGet();
+    }
+
+    private Long addCharge(Long loanId, String type, double amount, String appliedDate) {
+        Integer chargeId = given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", authToken)
+                .body(Map.of("type", type, "amount", amount, "appliedDate", appliedDate))
+                .when()
+                .post("/loans/" + loanId + "/charges")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("data.chargeId");
+
+        return chargeId.longValue();
+    }
+
+    private void assertOutstandingCharges(Long loanId, float expected) {
+        given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/" + loanId + "/charges")
+                .then()
+                .statusCode(200)
+                .body("data.outstandingCharges", equalTo(expected));
+    }
+
+    // Polls a job or tracking endpoint until its status is one of the given ones, returning that status
+    private String awaitStatus(String path, String... finalStatuses) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String status = null;
+        while (System.currentTimeMillis() < deadline) {
+            status = given()
+                    .header("Authorization", authToken)
+                    .when()
+                    .get(path)
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("data.status");
+            if (List.of(finalStatuses).contains(status)) {
+                return status;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError(path + " still " + status + " after 10s");
+    }
+
+    private <T> T scheduleField(Long loanId, String path) {
+        return given()
+                .header("Authorization", authToken)
+                .when()
+                .get("/loans/" + loanId + "/schedule")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path(path);
+    }
+
     private void payAllEMIs(Long loanId, int numberOfEMIs, Double emiAmount) {
         for (int i = 1; i <= numberOfEMIs; i++) {
             String transactionId = "TXN-" + loanId + "-" + System.currentTimeMillis() + "-" + i;
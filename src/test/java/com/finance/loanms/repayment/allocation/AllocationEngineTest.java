@@ -0,0 +1,56 @@
+package com.finance.loanms.repayment.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationEngineTest {
+
+    private static final List<AllocationBucket> DEFAULT_ORDER = AllocationEngine.parseOrder(
+            List.of("CHARGES", "INTEREST", "PRINCIPAL", "FUTURE"));
+
+    @Test
+    void defaultOrder_PaysChargesThenOverdueInterestBeforeAnyOverduePrincipal() {
+        Allocation allocation = AllocationEngine.allocate(150_00, DEFAULT_ORDER,
+                new long[]{20_00}, new long[]{10_00, 10_00, 10_00}, new long[]{90_00, 90_00, 90_00}, 2);
+
+        assertEquals(20_00, allocation.toCharge(0));
+        assertEquals(10_00, allocation.toInterest(0));
+        assertEquals(10_00, allocation.toInterest(1));
+        assertEquals(90_00, allocation.toPrincipal(0));
+        assertEquals(20_00, allocation.toPrincipal(1));
+        assertEquals(0, allocation.toInterest(2));
+        assertEquals(0, allocation.unallocated());
+    }
+
+    @Test
+    void partialPayments_LeaveChargeAndInstallmentPartlyPaid() {
+        Allocation allocation = AllocationEngine.allocate(25_50, DEFAULT_ORDER,
+                new long[]{20_00}, new long[]{10_00}, new long[]{90_00}, 0);
+
+        assertEquals(20_00, allocation.toCharge(0));
+        assertEquals(5_50, allocation.toInterest(0));
+        assertEquals(0, allocation.toPrincipal(0));
+        assertEquals(5_50, allocation.total(AllocationBucket.FUTURE));
+    }
+
+    @Test
+    void future_SettlesWholeInstallmentsInTurnAndReportsOverpayment() {
+        List<AllocationBucket> order = AllocationEngine.parseOrder(List.of("future", "charges"));
+        Allocation allocation = AllocationEngine.allocate(250_00, order,
+                new long[]{30_00}, new long[]{10_00, 10_00}, new long[]{90_00, 90_00}, 0);
+
+        assertEquals(100_00, allocation.toInterest(0) + allocation.toPrincipal(0));
+        assertEquals(100_00, allocation.toInterest(1) + allocation.toPrincipal(1));
+        assertEquals(30_00, allocation.toCharge(0));
+        assertEquals(20_00, allocation.unallocated());
+    }
+
+    @Test
+    void parseOrder_RejectsRepeatedBuckets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AllocationEngine.parseOrder(List.of("CHARGES", "INTEREST", "charges")));
+    }
+}
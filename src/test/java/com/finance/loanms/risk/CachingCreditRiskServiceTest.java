@@ -0,0 +1,60 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.payload.RiskAssessment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingCreditRiskServiceTest {
+
+    @Test
+    void key_IgnoresFieldsTheScorersDoNotRead() {
+        RiskRequestKey key = RiskRequestKey.of(request(250000.0).build());
+
+        assertEquals(key, RiskRequestKey.of(request(250000.0).customerId(99L).interestType(InterestType.FLOATING)
+                .steppedRates(Map.of(1, 9.0)).employmentStatus("salaried").build()));
+        assertNotEquals(key, RiskRequestKey.of(request(250000.01).build()));
+        assertNotEquals(key, RiskRequestKey.of(request(250000.0).existingDebt(null).build()));
+        assertNotEquals(RiskRequestKey.of(request(1.0).employmentStatus("AB").loanPurpose("C").build()),
+                RiskRequestKey.of(request(1.0).employmentStatus("A").loanPurpose("BC").build()));
+    }
+
+    @Test
+    void onlyRealAnswersAreCached() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingCreditRiskService service = new CachingCreditRiskService(request -> {
+            calls.incrementAndGet();
+            return RiskAssessment.builder().isApproved(true).riskScore(0.8)
+                    .fallback(request.getPrincipal() > 1_000_000).build();
+        }, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        service.assessRisk(request(250000.0).build());
+        service.assessRisk(request(250000.0).customerId(2L).build());
+        assertEquals(1, calls.get());
+
+        service.assessRisk(request(5_000_000.0).build());
+        service.assessRisk(request(5_000_000.0).build());
+        assertEquals(3, calls.get());
+    }
+
+    private static CreateLoanRequest.CreateLoanRequestBuilder request(double principal) {
+        return CreateLoanRequest.builder()
+                .customerId(1L)
+                .principal(principal)
+                .interestRate(10.5)
+                .interestType(InterestType.FIXED)
+                .tenureMonths(60)
+                .monthlyIncome(90000.0)
+                .creditScore(720)
+                .employmentStatus("SALARIED")
+                .existingDebt(5000.0)
+                .loanPurpose("HOME");
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.service.CreditRiskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedCreditRiskServiceTest {
+
+    private static final CreditRiskService RULES = request -> RiskAssessment.builder()
+            .isApproved(true).riskScore(0.7).reason("Approved by rules").build();
+    private static final CreateLoanRequest REQUEST = CreateLoanRequest.builder().principal(1000.0).build();
+
+    @Test
+    void slowFirstAttempt_IsOvertakenByTheHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (HedgedCreditRiskService service = service(request -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(2000);
+            }
+            return RiskAssessment.builder().isApproved(false).riskScore(0.2).reason("ML").build();
+        }, registry)) {
+            RiskAssessment result = service.assessRisk(REQUEST);
+
+            assertEquals("ML", result.getReason());
+            assertNull(result.getSource());
+            assertEquals(2, calls.get());
+            assertEquals(1.0, registry.counter("credit.risk.hedge.requests").count());
+        }
+    }
+
+    @Test
+    void deadline_ReturnsTaggedRuleDecision() {
+        try (HedgedCreditRiskService service = service(request -> {
+            sleep(2000);
+            return RiskAssessment.builder().isApproved(false).build();
+        }, new SimpleMeterRegistry())) {
+            long start = System.nanoTime();
+            RiskAssessment result = service.assessRisk(REQUEST);
+
+            assertTrue(System.nanoTime() - start < Duration.ofMillis(1500).toNanos());
+            assertEquals(HedgedCreditRiskService.BACKUP_SOURCE, result.getSource());
+            assertTrue(result.isFallback());
+            assertTrue(result.isApproved());
+            assertTrue(result.getReason().endsWith("Approved by rules"));
+        }
+    }
+
+    @Test
+    void failingPrimary_IsRetriedOnceThenRulesDecide() {
+        AtomicInteger calls = new AtomicInteger();
+        try (HedgedCreditRiskService service = service(request -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("connection refused");
+        }, new SimpleMeterRegistry())) {
+            RiskAssessment result = service.assessRisk(REQUEST);
+
+            assertEquals(2, calls.get());
+            assertEquals(HedgedCreditRiskService.BACKUP_SOURCE, result.getSource());
+            assertTrue(result.getReason().contains("unavailable"));
+        }
+    }
+
+    private static HedgedCreditRiskService service(CreditRiskService ml, SimpleMeterRegistry registry) {
+        return new HedgedCreditRiskService(ml, RULES, Duration.ofMillis(500), Duration.ofMillis(10),
+                Duration.ofMillis(50), registry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
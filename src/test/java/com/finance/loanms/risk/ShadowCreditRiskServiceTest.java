@@ -0,0 +1,76 @@
+package com.finance.loanms.risk;
+
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowCreditRiskServiceTest {
+
+    @Test
+    void comparisons_FeedTheRollingWindow() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ShadowCreditRiskService service = new ShadowCreditRiskService(
+                request -> decision(true, 0.6),
+                request -> decision(request.getPrincipal() < 100, 0.8),
+                2, 100, 4, registry);
+
+        for (double principal : new double[]{10, 20, 500, 30, 40}) {
+            assertTrue(service.assessRisk(CreateLoanRequest.builder().principal(principal).build()).isApproved());
+        }
+        awaitComparisons(registry, 5);
+
+        // The window keeps the last four, one of which disagreed (in comparison order, which may vary)
+        ShadowCreditRiskService.Stats stats = service.stats();
+        assertEquals(4, stats.samples());
+        assertEquals(0.2, stats.meanScoreDelta(), 1e-9);
+        assertTrue(stats.agreementRate() >= 0.75);
+        assertEquals(1.0, registry.counter("credit.risk.shadow.comparisons", "outcome", "live-approves-only").count());
+        assertEquals(4.0, registry.counter("credit.risk.shadow.comparisons", "outcome", "agree").count());
+    }
+
+    @Test
+    void fullQueue_DropsComparisonsWithoutBlockingTheLiveCall() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        ShadowCreditRiskService service = new ShadowCreditRiskService(
+                request -> decision(true, 0.6),
+                request -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return decision(true, 0.6);
+                },
+                1, 1, 10, registry);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            service.assessRisk(CreateLoanRequest.builder().principal(1.0).build());
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(registry.counter("credit.risk.shadow.dropped").count() >= 3);
+        release.countDown();
+    }
+
+    private static RiskAssessment decision(boolean approved, double score) {
+        return RiskAssessment.builder().isApproved(approved).riskScore(score).build();
+    }
+
+    private static void awaitComparisons(SimpleMeterRegistry registry, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.find("credit.risk.shadow.comparisons").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum() < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Shadow comparisons did not complete");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
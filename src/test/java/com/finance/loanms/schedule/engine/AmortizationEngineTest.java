@@ -0,0 +1,114 @@
+package com.finance.loanms.schedule.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 31);
+
+    @Test
+    void flatSchedule_MatchesLegacyFormula() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(
+                AmortizationMethod.FLAT, 12000, 12, RateTable.flat(10), START);
+
+        assertEquals(12, schedule.size());
+        for (int i = 1; i <= 12; i++) {
+            assertEquals(12000.0 / 12, schedule.principalComponent(i));
+            assertEquals(12000 * (10.0 / 12 / 100), schedule.interestComponent(i));
+            assertEquals(START.plusMonths(i), schedule.dueDate(i));
+        }
+        assertEquals(0.0, schedule.closingBalance(12), 1e-9);
+    }
+
+    @Test
+    void dueDates_FollowLocalDatePlusMonthsAcrossLeapYears() {
+        LocalDate start = LocalDate.of(2023, 8, 31);
+        AmortizationSchedule schedule = AmortizationEngine.compute(
+                AmortizationMethod.FLAT, 1000, 360, RateTable.flat(5), start);
+
+        for (int i = 1; i <= 360; i++) {
+            assertEquals(start.plusMonths(i), schedule.dueDate(i), "installment " + i);
+        }
+    }
+
+    @Test
+    void reducingBalance_PaysOffPrincipalWithLevelEmi() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(
+                AmortizationMethod.REDUCING_BALANCE, 100000, 24, RateTable.flat(12), START);
+
+        double emi = AmortizationEngine.emi(100000, 0.01, 24);
+        assertEquals(4707.35, emi, 0.01);
+        for (int i = 1; i < 24; i++) {
+            assertEquals(emi, schedule.totalAmount(i), 1e-6);
+        }
+        assertEquals(emi, schedule.totalAmount(24), 1e-6);
+        assertEquals(0.0, schedule.closingBalance(24), 1e-6);
+        assertEquals(1000.0, schedule.interestComponent(1), 1e-9);
+    }
+
+    @Test
+    void stepRates_UseFloorOfBreakpointsAndZeroBeforeFirstStep() {
+        RateTable rates = RateTable.fromSteps(Map.of(3, 9.5, 1, 8.0, 5, 10.5));
+        AmortizationSchedule schedule = AmortizationEngine.compute(
+                AmortizationMethod.FLAT, 15000, 6, rates, START);
+
+        double[] expected = {8.0, 8.0, 9.5, 9.5, 10.5, 10.5};
+        for (int i = 1; i <= 6; i++) {
+            assertEquals(15000 * (expected[i - 1] / 12 / 100), schedule.interestComponent(i));
+        }
+
+        RateTable late = RateTable.fromSteps(Map.of(3, 9.0));
+        assertEquals(0.0, late.rateAt(2));
+        assertEquals(9.0, late.rateAt(3));
+    }
+
+    @Test
+    void fromSteps_CollapsesExpandedPerMonthMaps() {
+        RateTable rates = RateTable.fromSteps(Map.of(1, 8.0, 2, 8.0, 3, 9.5, 4, 9.5));
+
+        assertEquals(2, rates.size());
+        assertEquals(3, rates.fromInstallment(1));
+    }
+
+    @Test
+    void computeRange_RepricesOnlyFromEffectiveInstallment() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(
+                AmortizationMethod.REDUCING_BALANCE, 50000, 12, RateTable.flat(10), START);
+        double interestBefore = schedule.interestComponent(5);
+        double balance = schedule.closingBalance(6);
+
+        AmortizationEngine.computeRange(AmortizationMethod.REDUCING_BALANCE, 50000, 12,
+                RateTable.flat(14), START, 7, balance, schedule);
+
+        assertEquals(interestBefore, schedule.interestComponent(5));
+        assertEquals(balance * 14.0 / 12 / 100, schedule.interestComponent(7), 1e-9);
+        assertEquals(0.0, schedule.closingBalance(12), 1e-6);
+    }
+
+    @Test
+    void withRateFrom_TruncatesLaterBreakpoints() {
+        RateTable rates = RateTable.fromSteps(Map.of(1, 8.0, 6, 9.0, 10, 10.0)).withRateFrom(7, 12.0);
+
+        assertEquals(8.0, rates.rateAt(5));
+        assertEquals(9.0, rates.rateAt(6));
+        assertEquals(12.0, rates.rateAt(7));
+        assertEquals(12.0, rates.rateAt(20));
+    }
+
+    @Test
+    void stepRatesNormalize_KeepsOnlyBreakpointsWithinTenure() {
+        SortedMap<Integer, Double> breakpoints = StepRates.normalize(Map.of(0, 7.0, 13, 8.0, 25, 8.0, 400, 9.0), 360);
+
+        assertEquals(Map.of(1, 7.0, 13, 8.0), breakpoints);
+
+        RateTable legacy = RateTable.fromSteps(Map.of(1, 7.0, 2, 7.0, 13, 8.0));
+        assertEquals(RateTable.fromSteps(breakpoints).rateAt(12), legacy.rateAt(12));
+        assertEquals(RateTable.fromSteps(breakpoints).rateAt(200), legacy.rateAt(200));
+    }
+}
@@ -0,0 +1,40 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.repository.ChargeRepository;
+import com.finance.loanms.repository.LoanAccountRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChargeServiceImplTest {
+
+    private final ChargeRepository chargeRepository = mock(ChargeRepository.class);
+    private final ChargeServiceImpl chargeService = new ChargeServiceImpl(chargeRepository, mock(LoanAccountRepository.class));
+
+    @Test
+    void outstandingCharges_LoanWithoutRunningTotal_IsSummedOnce() {
+        LoanAccount loanAccount = LoanAccount.builder().id(7L).build();
+        when(chargeRepository.sumOutstanding(7L)).thenReturn(250.5);
+
+        assertEquals(250.5, chargeService.outstandingCharges(loanAccount));
+        assertEquals(250.5, chargeService.outstandingCharges(loanAccount));
+
+        assertEquals(250.5, loanAccount.getOutstandingCharges());
+        verify(chargeRepository, times(1)).sumOutstanding(7L);
+    }
+
+    @Test
+    void outstandingCharges_LoanWithRunningTotal_IsNotQueried() {
+        LoanAccount loanAccount = LoanAccount.builder().id(7L).outstandingCharges(0.0).build();
+
+        assertEquals(0.0, chargeService.outstandingCharges(loanAccount));
+
+        verify(chargeRepository, never()).sumOutstanding(7L);
+    }
+}
@@ -0,0 +1,156 @@
+package com.finance.loanms.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.loanms.dto.request.CreateLoanRequest;
+import com.finance.loanms.model.payload.RiskAssessment;
+import com.finance.loanms.risk.forest.CreditFeatures;
+import com.finance.loanms.risk.forest.ForestModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedModelCreditRiskServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // A three-tree forest in the export format, with the predictions recorded for parity_cases.json
+    private static final Path MODEL_FIXTURE = Path.of("src/test/resources/credit_risk_model_fixture.json");
+
+    @Test
+    void featureMapping_MatchesFeaturesPy() throws IOException {
+        JsonNode cases = MAPPER.readTree(Path.of("ml-service/parity_cases.json").toFile());
+        assertFalse(cases.isEmpty());
+
+        for (JsonNode parityCase : cases) {
+            float[] actual = CreditFeatures.of(request(parityCase.path("input")));
+            JsonNode expected = parityCase.path("features");
+            assertEquals(CreditFeatures.COLUMNS.size(), expected.size());
+            for (int i = 0; i < actual.length; i++) {
+                // The model compares float32 inputs, so that is the precision that has to agree
+                float want = expected.get(i).isNull() ? Float.NaN : (float) expected.get(i).asDouble();
+                assertEquals(want, actual[i], parityCase.path("name").asText() + " / " + CreditFeatures.COLUMNS.get(i));
+            }
+        }
+    }
+
+    @Test
+    void scoring_FollowsSklearnSplitRulesAndAveragesTrees() {
+        // Tree 1 splits income at 0.1 with NaN sent left; tree 2 splits employment status at 1.5
+        ForestModel model = ForestModel.parse(forest(
+                tree(CreditFeatures.MONTHLY_INCOME, 0.1, true, 0.2, 0.6),
+                tree(CreditFeatures.EMPLOYMENT_STATUS, 1.5, false, 0.0, 1.0)));
+
+        assertEquals(2, model.treeCount());
+        assertEquals(6, model.nodeCount());
+        // 0.1 as float32 is just above 0.1 as a double, so it goes right as it would in sklearn
+        assertEquals((0.6 + 1.0) / 2, model.approvalProbability(features(0.1, 2)), 1e-15);
+        assertEquals((0.2 + 0.0) / 2, model.approvalProbability(features(0.05, 1)), 1e-15);
+        assertEquals((0.2 + 1.0) / 2, model.approvalProbability(features(null, 2)), 1e-15);
+    }
+
+    @Test
+    void parse_RejectsMalformedModels() {
+        JsonNode cyclic = forest(Map.of(
+                "left", new int[]{0}, "right", new int[]{0}, "feature", new int[]{0},
+                "threshold", new double[]{1}, "missingLeft", new boolean[]{false}, "approval", new double[]{0.5}));
+        assertThrows(IllegalArgumentException.class, () -> ForestModel.parse(cyclic));
+
+        JsonNode wrongFormat = MAPPER.valueToTree(Map.of("format", "pickle"));
+        assertThrows(IllegalArgumentException.class, () -> ForestModel.parse(wrongFormat));
+    }
+
+    /** {@code python train_model.py --fixture} regenerates the fixture with sklearn's own predictions. */
+    @Test
+    void exportedModel_MatchesRecordedPredictions() throws IOException {
+        EmbeddedModelCreditRiskService service = new EmbeddedModelCreditRiskService(MAPPER, MODEL_FIXTURE.toString(), 0);
+        assertTrue(service.isLoaded());
+
+        JsonNode parity = MAPPER.readTree(MODEL_FIXTURE.toFile()).path("parity");
+        assertFalse(parity.isEmpty());
+        for (JsonNode expected : parity) {
+            RiskAssessment result = service.assessRisk(request(expected.path("input")));
+            String name = expected.path("name").asText();
+            assertEquals(expected.path("probability").asDouble(), result.getRiskScore(), 1e-12, name);
+            assertEquals(expected.path("approved").asBoolean(), result.isApproved(), name);
+        }
+    }
+
+    @Test
+    void changedFile_IsSwappedInAndBadFileKeepsCurrentModel(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("model.json");
+        EmbeddedModelCreditRiskService service = new EmbeddedModelCreditRiskService(MAPPER, file.toString(), 0);
+        JsonNode application = MAPPER.readTree("{\"monthlyIncome\": 50000, \"creditScore\": 700, \"principal\": 100000,"
+                + " \"tenureMonths\": 24, \"employmentStatus\": \"SALARIED\"}");
+        assertThrows(IllegalStateException.class, () -> service.assessRisk(request(application)));
+
+        write(file, forest(tree(CreditFeatures.CREDIT_SCORE, 650, false, 0.1, 0.3)), 1);
+        service.reloadIfChanged();
+        assertEquals(0.3, service.assessRisk(request(application)).getRiskScore(), 1e-15);
+        assertFalse(service.assessRisk(request(application)).isApproved());
+
+        write(file, forest(tree(CreditFeatures.CREDIT_SCORE, 650, false, 0.1, 0.9)), 2);
+        service.reloadIfChanged();
+        assertTrue(service.assessRisk(request(application)).isApproved());
+
+        Files.writeString(file, "{\"format\": \"loanms-forest-v1\", \"trees\": [");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(3)));
+        service.reloadIfChanged();
+        assertEquals(0.9, service.assessRisk(request(application)).getRiskScore(), 1e-15);
+    }
+
+    private static void write(Path file, JsonNode model, int secondsAhead) throws IOException {
+        MAPPER.writeValue(file.toFile(), model);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(secondsAhead)));
+    }
+
+    @SafeVarargs
+    private static JsonNode forest(Map<String, Object>... trees) {
+        return MAPPER.valueToTree(Map.of(
+                "format", ForestModel.FORMAT,
+                "features", CreditFeatures.COLUMNS,
+                "trees", List.of(trees)));
+    }
+
+    private static Map<String, Object> tree(int feature, double threshold, boolean missingLeft,
+                                            double leftApproval, double rightApproval) {
+        return Map.of(
+                "left", new int[]{1, -1, -1},
+                "right", new int[]{2, -1, -1},
+                "feature", new int[]{feature, -2, -2},
+                "threshold", new double[]{threshold, -2, -2},
+                "missingLeft", new boolean[]{missingLeft, false, false},
+                "approval", new double[]{0.5, leftApproval, rightApproval});
+    }
+
+    private static float[] features(Double monthlyIncome, int employmentStatus) {
+        float[] features = new float[CreditFeatures.COLUMNS.size()];
+        features[CreditFeatures.MONTHLY_INCOME] = CreditFeatures.number(monthlyIncome);
+        features[CreditFeatures.EMPLOYMENT_STATUS] = employmentStatus;
+        return features;
+    }
+
+    private static CreateLoanRequest request(JsonNode input) {
+        return CreateLoanRequest.builder()
+                .monthlyIncome(number(input, "monthlyIncome"))
+                .creditScore(input.path("creditScore").isNumber() ? input.path("creditScore").asInt() : null)
+                .principal(number(input, "principal"))
+                .tenureMonths(input.path("tenureMonths").isNumber() ? input.path("tenureMonths").asInt() : null)
+                .existingDebt(number(input, "existingDebt"))
+                .employmentStatus(input.path("employmentStatus").isTextual() ? input.path("employmentStatus").asText() : null)
+                .loanPurpose(input.path("loanPurpose").isTextual() ? input.path("loanPurpose").asText() : null)
+                .build();
+    }
+
+    private static Double number(JsonNode input, String field) {
+        return input.path(field).isNumber() ? input.path(field).asDouble() : null;
+    }
+}
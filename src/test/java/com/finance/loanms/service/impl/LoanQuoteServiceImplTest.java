@@ -0,0 +1,43 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.request.LoanQuoteRequest;
+import com.finance.loanms.dto.response.LoanQuoteResponse;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoanQuoteServiceImplTest {
+
+    private final LoanQuoteServiceImpl quoteService = new LoanQuoteServiceImpl(AmortizationMethod.FLAT, 1000, 600);
+
+    @Test
+    void quote_GridOverLimit_IsRejectedBeforePricing() {
+        // 1000 tenures x 1000 rates would be a million combinations if built
+        List<Integer> tenures = Collections.nCopies(1000, 12);
+        List<Double> rates = Collections.nCopies(1000, 10.0);
+        LoanQuoteRequest request = new LoanQuoteRequest(100000.0, tenures, rates, null, null, null, false);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> quoteService.quote(request));
+
+        assertTrue(e.getMessage().contains("1000 combinations"));
+    }
+
+    @Test
+    void quote_SteppedReducingBalance_ReportsFirstInstallmentOnly() {
+        LoanQuoteRequest request = new LoanQuoteRequest(120000.0, List.of(12), null, List.of(InterestType.STEP),
+                Map.of(1, 6.0, 7, 12.0), List.of(AmortizationMethod.REDUCING_BALANCE), true);
+
+        LoanQuoteResponse.Quote quote = quoteService.quote(request).getData().quotes().get(0);
+
+        assertEquals(quote.schedule().get(0).getTotalAmount(), quote.firstInstallment(), 1e-9);
+        assertTrue(quote.schedule().get(11).getTotalAmount() > quote.firstInstallment());
+    }
+}
@@ -0,0 +1,127 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.model.entity.RepaymentIngestJob;
+import com.finance.loanms.model.enumtype.IngestStatus;
+import com.finance.loanms.repository.RepaymentIngestJobRepository;
+import com.finance.loanms.repository.RepaymentRepository;
+import com.finance.loanms.service.RepaymentService;
+import com.finance.loanms.util.TransactionIdFilter;
+import com.finance.loanms.util.WorkLease;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepaymentIngestServiceImplTest {
+
+    @TempDir
+    Path workDir;
+
+    private final RepaymentIngestJobRepository jobRepository = mock(RepaymentIngestJobRepository.class);
+    private final RepaymentService repaymentService = mock(RepaymentService.class);
+    private final TransactionIdFilter transactionIdFilter = mock(TransactionIdFilter.class);
+    private final WorkLease workLease = new WorkLease("test-node", Duration.ofMinutes(2));
+    private final AtomicReference<RepaymentIngestJob> saved = new AtomicReference<>();
+    private RepaymentIngestServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        workLease.shutdown();
+    }
+
+    @Test
+    void deadStripe_FailsTheJobInsteadOfBlockingTheReader() throws Exception {
+        // One worker with room for four queued lines: once it dies the reader would block on the sixth line
+        service = newService(1, 1);
+        when(repaymentService.applyRepayment(any(), any())).thenThrow(new OutOfMemoryError("worker died"));
+
+        service.startIngest(settlementFile(50));
+
+        RepaymentIngestJob job = awaitFinished();
+        assertEquals(IngestStatus.FAILED, job.getStatus());
+        assertEquals("worker died", job.getLastError());
+        assertEquals(50, job.getTotalLines());
+    }
+
+    @Test
+    void longFailureMessage_IsCutToTheColumnLength() throws Exception {
+        service = newService(1, 1);
+        when(repaymentService.applyRepayment(any(), any())).thenThrow(new OutOfMemoryError("x".repeat(1000)));
+
+        service.startIngest(settlementFile(50));
+
+        RepaymentIngestJob job = awaitFinished();
+        assertEquals(IngestStatus.FAILED, job.getStatus());
+        assertEquals(255, job.getLastError().length());
+    }
+
+    @Test
+    void healthyStripes_CompleteTheJob() throws Exception {
+        service = newService(2, 2);
+
+        service.startIngest(settlementFile(30));
+
+        RepaymentIngestJob job = awaitFinished();
+        assertEquals(IngestStatus.COMPLETED, job.getStatus());
+        assertEquals(30, job.getPostedLines());
+        assertEquals(0, job.getRejectedLines());
+        // Only the results are kept
+        assertFalse(Files.exists(workDir.resolve("ingest-1.csv")));
+        assertTrue(Files.exists(workDir.resolve("ingest-1-results.csv")));
+    }
+
+    private RepaymentIngestServiceImpl newService(int workers, int batchSize) {
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            RepaymentIngestJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(1L);
+            }
+            saved.set(job);
+            return job;
+        });
+        when(jobRepository.findById(1L)).thenAnswer(invocation -> Optional.ofNullable(saved.get()));
+        when(transactionIdFilter.mightContain(anyString())).thenReturn(false);
+        return new RepaymentIngestServiceImpl(jobRepository, mock(RepaymentRepository.class), repaymentService,
+                transactionIdFilter, mock(PlatformTransactionManager.class), workLease, workDir, Duration.ofDays(7),
+                workers, batchSize);
+    }
+
+    private static MockMultipartFile settlementFile(int lines) {
+        StringBuilder csv = new StringBuilder("loanId,amount,paymentDate,mode,transactionId\n");
+        for (int i = 0; i < lines; i++) {
+            csv.append(i % 3 + 1).append(",100.00,2025-01-15,UPI,TXN-").append(i).append('\n');
+        }
+        return new MockMultipartFile("file", "settlement.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private RepaymentIngestJob awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            // The job leaves the running view only after its final counts are saved
+            String status = service.getJob(1L).getData().status();
+            if (status.equals(IngestStatus.COMPLETED.toString()) || status.equals(IngestStatus.FAILED.toString())) {
+                return saved.get();
+            }
+            Thread.sleep(20);
+        }
+        fail("Ingest job did not finish; status " + saved.get().getStatus());
+        return null;
+    }
+}
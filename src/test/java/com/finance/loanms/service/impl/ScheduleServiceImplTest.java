@@ -0,0 +1,132 @@
+package com.finance.loanms.service.impl;
+
+import com.finance.loanms.dto.response.ScheduleResponse;
+import com.finance.loanms.model.entity.Installment;
+import com.finance.loanms.model.entity.InterestRate;
+import com.finance.loanms.model.entity.LoanAccount;
+import com.finance.loanms.model.enumtype.InterestType;
+import com.finance.loanms.model.enumtype.ScheduleStorage;
+import com.finance.loanms.repository.InstallmentRepository;
+import com.finance.loanms.repository.LoanAccountRepository;
+import com.finance.loanms.schedule.cache.ScheduleResponseCache;
+import com.finance.loanms.schedule.engine.AmortizationMethod;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScheduleServiceImplTest {
+
+    @ParameterizedTest
+    @CsvSource({"FLAT, FIXED", "REDUCING_BALANCE, FIXED", "REDUCING_BALANCE, STEP"})
+    void virtualSchedule_MatchesMaterializedBeforeAndAfterRateChanges(AmortizationMethod method, InterestType type) {
+        Schedules materialized = new Schedules(ScheduleStorage.MATERIALIZED, method, type);
+        Schedules virtual = new Schedules(ScheduleStorage.VIRTUAL, method, type);
+
+        assertTrue(materialized.stored.size() == 24 && virtual.stored.isEmpty());
+        assertSameSchedule(materialized.schedule(), virtual.schedule());
+
+        // The second change re-anchors a schedule that was already repriced once
+        for (int[] change : new int[][]{{5, 12}, {11, 9}}) {
+            materialized.changeRate(change[1], change[0]);
+            virtual.changeRate(change[1], change[0]);
+            assertSameSchedule(materialized.schedule(), virtual.schedule());
+        }
+        // Only the installments before the last change had to be stored to keep their amounts
+        assertEquals(10, virtual.stored.size());
+        assertEquals(11, virtual.loan.getRateResetInstallment());
+    }
+
+    private static void assertSameSchedule(List<ScheduleResponse.InstallmentEntry> expected,
+                                           List<ScheduleResponse.InstallmentEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ScheduleResponse.InstallmentEntry want = expected.get(i);
+            ScheduleResponse.InstallmentEntry got = actual.get(i);
+            String at = "installment " + want.getInstallmentNumber();
+            assertEquals(want.getInstallmentNumber(), got.getInstallmentNumber(), at);
+            assertEquals(want.getDueDate(), got.getDueDate(), at);
+            assertEquals(want.getPrincipalComponent(), got.getPrincipalComponent(), 1e-6, at);
+            assertEquals(want.getInterestComponent(), got.getInterestComponent(), 1e-6, at);
+            assertEquals(want.getTotalAmount(), got.getTotalAmount(), 1e-6, at);
+            assertEquals(want.getStatus(), got.getStatus(), at);
+        }
+    }
+
+    /** One loan and a schedule service over an in-memory installment table. */
+    private static final class Schedules {
+
+        final List<Installment> stored = new ArrayList<>();
+        final LoanAccount loan;
+        final ScheduleServiceImpl service;
+
+        @SuppressWarnings("unchecked")
+        Schedules(ScheduleStorage storage, AmortizationMethod method, InterestType type) {
+            TreeMap<Integer, Double> steps = new TreeMap<>();
+            if (type == InterestType.STEP) {
+                steps.put(1, 8.0);
+                steps.put(7, 10.5);
+                steps.put(15, 11.0);
+            }
+            loan = LoanAccount.builder()
+                    .id(1L)
+                    .principal(250000)
+                    .tenureMonths(24)
+                    .startDate(LocalDate.of(2024, 1, 31))
+                    .interestRate(InterestRate.builder().type(type).baseRate(10.5).steppedRates(steps).build())
+                    .build();
+
+            InstallmentRepository installments = mock(InstallmentRepository.class);
+            AtomicLong ids = new AtomicLong();
+            when(installments.saveAll(any())).thenAnswer(invocation -> {
+                for (Installment installment : (Iterable<Installment>) invocation.getArgument(0)) {
+                    if (installment.getId() == null) {
+                        installment.setId(ids.incrementAndGet());
+                        stored.add(installment);
+                    }
+                }
+                stored.sort(Comparator.comparingInt(Installment::getInstallmentNumber));
+                return invocation.getArgument(0);
+            });
+            when(installments.findByLoanAccountOrderByInstallmentNumberAsc(loan)).thenAnswer(invocation -> List.copyOf(stored));
+            when(installments.findByLoanAccountAndInstallmentNumberGreaterThanEqual(any(), anyInt())).thenAnswer(invocation ->
+                    stored.stream().filter(i -> i.getInstallmentNumber() >= (int) invocation.getArgument(1)).toList());
+            when(installments.sumPrincipalComponentBefore(any(), anyInt())).thenAnswer(invocation ->
+                    stored.stream().filter(i -> i.getInstallmentNumber() < (int) invocation.getArgument(1))
+                            .mapToDouble(Installment::getPrincipalComponent).sum());
+
+            LoanAccountRepository loans = mock(LoanAccountRepository.class);
+            when(loans.findById(1L)).thenReturn(Optional.of(loan));
+            ScheduleResponseCache cache = mock(ScheduleResponseCache.class);
+            when(cache.get(anyLong(), any())).thenAnswer(invocation ->
+                    ((Supplier<ScheduleResponse>) invocation.getArgument(1)).get());
+
+            service = new ScheduleServiceImpl(installments, loans, method, storage, cache,
+                    mock(PlatformTransactionManager.class));
+            service.generateSchedule(loan);
+        }
+
+        List<ScheduleResponse.InstallmentEntry> schedule() {
+            return service.getSchedule(1L).getData().getSchedule();
+        }
+
+        void changeRate(double newRate, int effectiveFromInstallment) {
+            service.updateScheduleAfterRateChange(1L, newRate, effectiveFromInstallment);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.loanms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroBatcherTest {
+
+    @Test
+    void concurrentItems_AreSentTogetherAndAnsweredInOrder() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test", items -> {
+            batchSizes.add(items.size());
+            return items.stream().map(i -> "r" + i).toList();
+        }, 8, 200, 100)) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(batcher.submit(i));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertEquals("r" + i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(8, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() <= 2, "items should share batches: " + batchSizes);
+    }
+
+    @Test
+    void senderFailure_FailsEveryItemOfTheBatch() {
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test", items -> {
+            throw new IllegalStateException("down");
+        }, 4, 1, 100)) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> batcher.submit(1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+}